@@ -18,6 +18,23 @@ dependencies {
     compileOnly("com.google.code.gson", "gson", "2.3.1") // Use this specific version for Spigot
 }
 
+// Classes for newer Java versions (such as the HTTP/2 transport and virtual threads), added to the multi-release jar
+listOf(11, 21).forEach { version ->
+    val sourceSet = sourceSets.create("java$version") {
+        java.setSrcDirs(listOf("src/main/java$version"))
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+    tasks.named<JavaCompile>(sourceSet.compileJavaTaskName) {
+        // Compiled by a JDK of that version (provisioned by the toolchain resolver if missing), the main source set keeps using the host JDK
+        javaCompiler.set(javaToolchains.compilerFor { languageVersion.set(JavaLanguageVersion.of(version)) })
+        options.release.set(version)
+    }
+    tasks.withType<Jar>().matching { it.name == "jar" || it.name == "shadowJar" }.configureEach {
+        into("META-INF/versions/$version") { from(sourceSet.output) }
+        manifest.attributes("Multi-Release" to "true")
+    }
+}
+
 setupPublishing(
     artifactId = "java-utilities",
     url = "https://java-utilities.srnyx.com",
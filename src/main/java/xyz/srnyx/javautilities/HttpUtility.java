@@ -1,25 +1,216 @@
 package xyz.srnyx.javautilities;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
+import xyz.srnyx.javautilities.http.AsyncHttpUtility;
+import xyz.srnyx.javautilities.http.Checksum;
+import xyz.srnyx.javautilities.http.CircuitBreaker;
+import xyz.srnyx.javautilities.http.Compression;
+import xyz.srnyx.javautilities.http.EventStream;
+import xyz.srnyx.javautilities.http.FormPart;
+import xyz.srnyx.javautilities.http.HttpCache;
+import xyz.srnyx.javautilities.http.HttpCall;
+import xyz.srnyx.javautilities.http.HttpEvent;
+import xyz.srnyx.javautilities.http.HttpLimitException;
+import xyz.srnyx.javautilities.http.HttpLimits;
+import xyz.srnyx.javautilities.http.HttpMetrics;
+import xyz.srnyx.javautilities.http.HttpTransport;
+import xyz.srnyx.javautilities.http.IOConsumer;
+import xyz.srnyx.javautilities.http.IOFunction;
+import xyz.srnyx.javautilities.http.KeepAlive;
+import xyz.srnyx.javautilities.http.Page;
+import xyz.srnyx.javautilities.http.PageParser;
+import xyz.srnyx.javautilities.http.RateLimiter;
+import xyz.srnyx.javautilities.http.RetryPolicy;
+import xyz.srnyx.javautilities.http.ServerSentEvent;
+import xyz.srnyx.javautilities.http.SingleFlight;
+import xyz.srnyx.javautilities.http.UploadProgress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.SequenceInputStream;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 
 /**
  * Utility class for making HTTP requests
  */
 public class HttpUtility {
+    /**
+     * The default {@link AsyncHttpUtility}, lazily created by {@link #async()}
+     */
+    private static AsyncHttpUtility async;
+    /**
+     * The maximum amount of bytes transferred to a file at once when downloading
+     */
+    private static final long DOWNLOAD_CHUNK = 1024 * 1024;
+    /**
+     * The smallest range fetched by a segmented {@link #download(String, String, Path, Checksum, int) download}
+     */
+    private static final long MIN_SEGMENT = 1024 * 1024;
+    /**
+     * The buffer size used when writing ranges of a segmented {@link #download(String, String, Path, Checksum, int) download}
+     */
+    private static final int DOWNLOAD_BUFFER = 64 * 1024;
+    /**
+     * The buffer size used when streaming files into {@link #postMultipart(String, String, List, UploadProgress) multipart uploads}
+     */
+    private static final int UPLOAD_BUFFER = 64 * 1024;
+    /**
+     * The largest read buffer kept per thread for reading text responses
+     */
+    private static final int MAX_POOLED_BUFFER = 1024 * 1024;
+    /**
+     * The largest array length that can safely be allocated
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    /**
+     * The read buffer of each thread for reading text responses
+     */
+    @NotNull private static final ThreadLocal<byte[]> READ_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+    /**
+     * The buffer size used when streaming request bodies
+     */
+    private static final int CHUNK_LENGTH = 8192;
+    /**
+     * The {@link TypeAdapter} streaming {@link JsonElement JsonElements} into request bodies
+     */
+    @NotNull private static final TypeAdapter<JsonElement> JSON_ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+    /**
+     * The {@link Gson} instance used to deserialize typed JSON responses
+     */
+    @NotNull private static volatile Gson gson = new Gson();
+
+    /**
+     * Gets the {@link Gson} instance used by {@link #getJson(String, String, Type)}
+     *
+     * @return  the {@link Gson} instance
+     */
+    @NotNull
+    public static Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Sets the {@link Gson} instance used by {@link #getJson(String, String, Type)} (for example to register custom {@link TypeAdapter TypeAdapters})
+     * <br>The instance is shared, so the {@link TypeAdapter TypeAdapters} it creates are cached across requests
+     *
+     * @param   gson    the new {@link Gson} instance
+     */
+    public static void setGson(@NotNull Gson gson) {
+        HttpUtility.gson = gson;
+    }
+
+    /**
+     * Gets the default {@link AsyncHttpUtility}, which runs every request on its own virtual thread on Java 21+, otherwise on a bounded pool of {@link AsyncHttpUtility#DEFAULT_THREADS} daemon threads
+     *
+     * @see     AsyncHttpUtility#newDefaultExecutor()
+     *
+     * @return  the default {@link AsyncHttpUtility}
+     */
+    @NotNull
+    public static synchronized AsyncHttpUtility async() {
+        if (async == null) async = new AsyncHttpUtility(AsyncHttpUtility.newDefaultExecutor());
+        return async;
+    }
+
+    /**
+     * Creates a new {@link AsyncHttpUtility} running requests on the specified {@link Executor}
+     *
+     * @param   executor    the {@link Executor} to run requests on (see {@link AsyncHttpUtility#newExecutor(int)} for a bounded one)
+     *
+     * @return              the new {@link AsyncHttpUtility}
+     */
+    @NotNull
+    public static AsyncHttpUtility async(@NotNull Executor executor) {
+        return new AsyncHttpUtility(executor);
+    }
+
+    /**
+     * Warms up connections to the specified hosts in parallel (on the {@link #async() default executor}), so the first real requests to them don't pay for DNS, TCP and TLS
+     * <br>Each host is resolved (filling the JVM's DNS cache, which keeps addresses for {@code networkaddress.cache.ttl}) and sent a {@code HEAD} request, whose connection is then kept for reuse. With the {@link HttpTransport#urlConnection() HttpURLConnection transport}, this requires {@link KeepAlive} to be enabled
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urls        the hosts (for example {@code api.github.com}, using HTTPS) or URLs to warm up
+     *
+     * @return              a {@link CompletableFuture} completing once every host was warmed up (or failed to be), with the URLs that were connected to
+     */
+    @NotNull
+    public static CompletableFuture<List<String>> warmUp(@NotNull String userAgent, @NotNull String... urls) {
+        final Executor executor = async().executor;
+        final List<CompletableFuture<String>> futures = new ArrayList<>(urls.length);
+        for (final String url : urls) {
+            final String urlString = url.contains("://") ? url : "https://" + url + "/";
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    InetAddress.getAllByName(host(urlString));
+                } catch (final IOException | IllegalArgumentException e) {
+                    return null;
+                }
+                return request("HEAD", userAgent, urlString, null, null, null, response -> urlString).orElse(null);
+            }, executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            final List<String> connected = new ArrayList<>(futures.size());
+            for (final CompletableFuture<String> future : futures) {
+                final String url = future.join();
+                if (url != null) connected.add(url);
+            }
+            return connected;
+        });
+    }
+
     /**
      * Sends a GET request to the specified URL and returns the result of the specified function
      *
@@ -33,23 +224,183 @@ public class HttpUtility {
      */
     @NotNull
     public static <T> Optional<T> get(@NotNull String userAgent, @NotNull String url, Function<InputStreamReader, T> function) {
-        T result = null;
-        HttpURLConnection connection = null;
-        try {
-            connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("User-Agent", userAgent);
-            if (connection.getResponseCode() == 404) return Optional.empty();
-            result = function.apply(new InputStreamReader(connection.getInputStream()));
-        } catch (final IOException ignored) {
-            // Ignored
+        return getStream(userAgent, url, stream -> function.apply(new InputStreamReader(stream)));
+    }
+
+    /**
+     * Sends a GET request to the specified URL and returns the result of the specified function, using the specified {@link HttpCache}
+     * <br>While the cached entry is fresh, no request is sent. Once it expires, it is revalidated and the cached value is reused if the server responds with {@code 304 Not Modified}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL to request from
+     * @param   function    the function to apply to the {@link InputStreamReader} (only called when a new body is received or loaded from disk)
+     * @param   cache       the {@link HttpCache} to use
+     *
+     * @param   <T>         the type of the result of the specified function
+     *
+     * @return              the result of the specified function (possibly cached), or empty if the request failed
+     */
+    @NotNull
+    public static <T> Optional<T> get(@NotNull String userAgent, @NotNull String url, @NotNull Function<InputStreamReader, T> function, @NotNull HttpCache cache) {
+        HttpCache.Entry entry = cache.getEntry(url);
+        if (entry != null && entry.value == null && cache.getBody(url) == null) entry = null;
+        if (entry != null && !entry.isExpired()) {
+            final Optional<T> cached = getCached(url, entry, entry.expiresAt, function, cache);
+            if (cached.isPresent()) return cached;
+        }
+
+        final HttpCache.Entry revalidated = entry;
+        final IOConsumer<Map<String, String>> headers = revalidated == null ? null : map -> {
+            if (revalidated.etag != null) map.put("If-None-Match", revalidated.etag);
+            if (revalidated.lastModified != null) map.put("If-Modified-Since", revalidated.lastModified);
+        };
+        return request("GET", userAgent, url, headers, null, null, response -> {
+            final long expiresAt = System.currentTimeMillis() + cache.ttl.toMillis();
+            if (response.code == 304 && revalidated != null) return getCached(url, revalidated, expiresAt, function, cache).orElse(null);
+            if (response.code < 200 || response.code >= 300) return null;
+
+            // New body
+            final T result;
+            if (cache.directory == null) {
+                result = function.apply(new InputStreamReader(response.body()));
+            } else {
+                final byte[] body = readBytes(response.body());
+                result = function.apply(new InputStreamReader(new ByteArrayInputStream(body)));
+                cache.putBody(url, body);
+            }
+            if (result != null) cache.putEntry(url, new HttpCache.Entry(response.header("ETag"), response.header("Last-Modified"), expiresAt, result));
+            return result;
+        });
+    }
+
+    /**
+     * Sends a GET request to the specified URL and returns the result as a {@link JsonElement}, using the specified {@link HttpCache}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     * @param   cache       the {@link HttpCache} to use
+     *
+     * @return              the {@link JsonElement} (possibly cached), or empty if the request failed
+     *
+     * @see                 #get(String, String, Function, HttpCache)
+     */
+    @NotNull
+    public static Optional<JsonElement> getJson(@NotNull String userAgent, @NotNull String urlString, @NotNull HttpCache cache) {
+        return coalesce("json@" + System.identityHashCode(cache), userAgent, urlString, () -> get(userAgent, urlString, reader -> new JsonParser().parse(reader), cache));
+    }
+
+    /**
+     * Gets the value of a cached entry, parsing its body from disk if it isn't in memory, and stores it with a new expiry
+     *
+     * @param   url         the URL of the entry
+     * @param   entry       the {@link HttpCache.Entry}
+     * @param   expiresAt   the new {@link HttpCache.Entry#expiresAt}
+     * @param   function    the function to parse the body with
+     * @param   cache       the {@link HttpCache}
+     *
+     * @param   <T>         the type of the value
+     *
+     * @return              the cached value, or empty if it couldn't be loaded
+     */
+    @NotNull @SuppressWarnings("unchecked")
+    private static <T> Optional<T> getCached(@NotNull String url, @NotNull HttpCache.Entry entry, long expiresAt, @NotNull Function<InputStreamReader, T> function, @NotNull HttpCache cache) {
+        Object value = entry.value;
+        if (value == null) {
+            final Path body = cache.getBody(url);
+            if (body == null) return Optional.empty();
+            try (final InputStreamReader reader = new InputStreamReader(Files.newInputStream(body))) {
+                value = function.apply(reader);
+            } catch (final IOException e) {
+                return Optional.empty();
+            }
+            if (value == null) return Optional.empty();
         }
-        if (connection != null) connection.disconnect();
-        return Optional.ofNullable(result);
+        if (value != entry.value || expiresAt != entry.expiresAt) cache.putEntry(url, new HttpCache.Entry(entry.etag, entry.lastModified, expiresAt, value));
+        return Optional.of((T) value);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and returns the result of the specified function, which is given the raw response {@link InputStream}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL to request from
+     * @param   function    the function to apply to the {@link InputStream}
+     *
+     * @param   <T>         the type of the result of the specified function
+     *
+     * @return              the result of the specified function, or empty if the request failed
+     */
+    @NotNull
+    public static <T> Optional<T> getStream(@NotNull String userAgent, @NotNull String url, @NotNull IOFunction<InputStream, T> function) {
+        return getStream(userAgent, url, function, null);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and returns the result of the specified function, which is given the raw response {@link InputStream}
+     * <br>The request can be aborted from another thread using the {@link HttpCall}, which can also override the global {@link HttpLimits}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL to request from
+     * @param   function    the function to apply to the {@link InputStream}
+     * @param   call        the {@link HttpCall} to abort the request with and take limits from, or {@code null}
+     *
+     * @param   <T>         the type of the result of the specified function
+     *
+     * @return              the result of the specified function, or empty if the request failed or was aborted
+     */
+    @NotNull
+    public static <T> Optional<T> getStream(@NotNull String userAgent, @NotNull String url, @NotNull IOFunction<InputStream, T> function, @Nullable HttpCall call) {
+        return getStream(userAgent, url, Collections.emptyMap(), function, call);
+    }
+
+    /**
+     * Sends a GET request with additional headers to the specified URL and returns the result of the specified function, which is given the raw response {@link InputStream}
+     * <br>The request can be aborted from another thread using the {@link HttpCall}, which can also override the global {@link HttpLimits}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL to request from
+     * @param   headers     the headers to add to the request (overriding the default ones, such as {@code Accept-Encoding})
+     * @param   function    the function to apply to the {@link InputStream}
+     * @param   call        the {@link HttpCall} to abort the request with and take limits from, or {@code null}
+     *
+     * @param   <T>         the type of the result of the specified function
+     *
+     * @return              the result of the specified function, or empty if the request failed or was aborted
+     */
+    @NotNull
+    public static <T> Optional<T> getStream(@NotNull String userAgent, @NotNull String url, @NotNull Map<String, String> headers, @NotNull IOFunction<InputStream, T> function, @Nullable HttpCall call) {
+        return request("GET", userAgent, url, headers.isEmpty() ? null : map -> map.putAll(headers), null, call, response -> response.code == 404 ? null : function.apply(response.body()));
+    }
+
+    /**
+     * Opens a long-lived {@code text/event-stream} (Server-Sent Events) response, see {@link EventStream#serverSentEvents(String, String)}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL of the event stream
+     *
+     * @return              the {@link EventStream} of the received {@link ServerSentEvent ServerSentEvents}
+     */
+    @NotNull
+    public static EventStream<ServerSentEvent> getEvents(@NotNull String userAgent, @NotNull String url) {
+        return EventStream.serverSentEvents(userAgent, url);
+    }
+
+    /**
+     * Opens a long-lived newline-delimited JSON response, see {@link EventStream#jsonLines(String, String)}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL of the stream
+     *
+     * @return              the {@link EventStream} of the received {@link JsonElement JsonElements}
+     */
+    @NotNull
+    public static EventStream<JsonElement> getJsonLines(@NotNull String userAgent, @NotNull String url) {
+        return EventStream.jsonLines(userAgent, url);
     }
 
     /**
      * Sends a GET request to the specified URL and returns the result as a {@link String}
+     * <br>The body is returned exactly as received (line endings are kept), decoded with the charset of its {@code Content-Type} (UTF-8 if it has none)
      *
      * @param   userAgent   the user agent to use
      * @param   urlString   the URL to request from
@@ -58,7 +409,22 @@ public class HttpUtility {
      */
     @NotNull
     public static Optional<String> getString(@NotNull String userAgent, @NotNull String urlString) {
-        return get(userAgent, urlString, reader -> new BufferedReader(reader).lines().collect(Collectors.joining("\n")));
+        return coalesce("string", userAgent, urlString, () -> getString(userAgent, urlString, null));
+    }
+
+    /**
+     * Sends a GET request to the specified URL and returns the result as a {@link String}, see {@link #getString(String, String)}
+     * <br>The {@link HttpCall} can abort the request from another thread and override the global {@link HttpLimits}. If a limit is exceeded, the result is empty and {@link HttpCall#getLimitExceeded()} describes it
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     * @param   call        the {@link HttpCall} of the request, or {@code null}
+     *
+     * @return              the {@link String}, or empty if the request failed, was aborted, or exceeded a limit
+     */
+    @NotNull
+    public static Optional<String> getString(@NotNull String userAgent, @NotNull String urlString, @Nullable HttpCall call) {
+        return request("GET", userAgent, urlString, null, null, call, response -> response.code == 404 ? null : readString(response));
     }
 
     /**
@@ -71,7 +437,338 @@ public class HttpUtility {
      */
     @NotNull
     public static Optional<JsonElement> getJson(@NotNull String userAgent, @NotNull String urlString) {
-        return get(userAgent, urlString, reader -> new JsonParser().parse(reader));
+        return coalesce("json", userAgent, urlString, () -> get(userAgent, urlString, reader -> new JsonParser().parse(reader)));
+    }
+
+    /**
+     * Sends a GET request to the specified URL and deserializes the JSON response to the specified class, see {@link #getJson(String, String, Type)}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     * @param   type        the class to deserialize the response to
+     *
+     * @param   <T>         the type of the result
+     *
+     * @return              the deserialized response, or empty if the request failed
+     */
+    @NotNull
+    public static <T> Optional<T> getJson(@NotNull String userAgent, @NotNull String urlString, @NotNull Class<T> type) {
+        return getJson(userAgent, urlString, (Type) type);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and deserializes the JSON response to the specified type (for example a {@link com.google.gson.reflect.TypeToken TypeToken} type for generics)
+     * <br>The response is read straight into the target type using the {@link #getGson() shared Gson instance}, without building an intermediate {@link JsonElement} tree
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     * @param   type        the type to deserialize the response to
+     *
+     * @param   <T>         the type of the result
+     *
+     * @return              the deserialized response, or empty if the request failed
+     *
+     * @throws  com.google.gson.JsonParseException  if the response isn't valid JSON for the type
+     */
+    @NotNull
+    public static <T> Optional<T> getJson(@NotNull String userAgent, @NotNull String urlString, @NotNull Type type) {
+        final Gson instance = gson;
+        return coalesce("json:" + type.getTypeName() + "@" + System.identityHashCode(instance), userAgent, urlString, () -> getJsonReader(userAgent, urlString, reader -> instance.fromJson(reader, type)));
+    }
+
+    /**
+     * Sends a GET request to the specified URL and returns the result of the specified function, which is given a {@link JsonReader} to stream the response with
+     * <br>Unlike {@link #getJson(String, String)}, no {@link JsonElement} tree is built for the whole response
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     * @param   function    the function to apply to the {@link JsonReader}
+     *
+     * @param   <T>         the type of the result of the specified function
+     *
+     * @return              the result of the specified function, or empty if the request failed
+     */
+    @NotNull
+    public static <T> Optional<T> getJsonReader(@NotNull String userAgent, @NotNull String urlString, @NotNull IOFunction<JsonReader, T> function) {
+        return getStream(userAgent, urlString, stream -> function.apply(new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Sends a GET request to the specified URL, whose response must be a JSON array, and passes each of its elements to the specified {@link Consumer} as soon as it has been read
+     * <br>Only one element is kept in memory at a time, so this is suitable for very large arrays
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     * @param   consumer    the {@link Consumer} to pass each element to
+     *
+     * @return              the amount of elements read, or empty if the request failed
+     */
+    @NotNull
+    public static Optional<Integer> getJsonArray(@NotNull String userAgent, @NotNull String urlString, @NotNull Consumer<JsonElement> consumer) {
+        return getJsonReader(userAgent, urlString, reader -> {
+            final JsonParser parser = new JsonParser();
+            int count = 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                consumer.accept(parser.parse(reader));
+                count++;
+            }
+            reader.endArray();
+            return count;
+        });
+    }
+
+    /**
+     * Sends a GET request for one page of a paginated response and parses it with the specified {@link PageParser}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL of the page
+     * @param   parser      the {@link PageParser} to parse the page with
+     *
+     * @param   <T>         the type of the items
+     *
+     * @return              the parsed {@link Page}, or empty if the request failed
+     *
+     * @see                 AsyncHttpUtility#getPages(String, String, PageParser, int)
+     */
+    @NotNull
+    public static <T> Optional<Page<T>> getPage(@NotNull String userAgent, @NotNull String urlString, @NotNull PageParser<T> parser) {
+        return request("GET", userAgent, urlString, null, null, null, response -> parser.parse(urlString, new InputStreamReader(response.body(), StandardCharsets.UTF_8), response::header));
+    }
+
+    /**
+     * Downloads the response of a GET request to the specified file, see {@link #download(String, String, Path, Checksum)}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to download from
+     * @param   path        the file to download to
+     *
+     * @return              {@code true} if the file was downloaded, otherwise {@code false}
+     */
+    public static boolean download(@NotNull String userAgent, @NotNull String urlString, @NotNull Path path) {
+        return download(userAgent, urlString, path, null);
+    }
+
+    /**
+     * Downloads the response of a GET request to the specified file, streaming it straight to disk
+     * <br>The data is first written to a {@code .part} file next to the target. If a previous download was interrupted, it is resumed using a {@code Range} request (if the server supports it)
+     * <br>The {@code ETag} (or {@code Last-Modified}) of the file is kept in a {@code .part.validator} file and sent as {@code If-Range} when resuming, so the server sends the whole file again if it changed. Without one, the download is only resumed if a {@link Checksum} is specified (which catches a changed file), otherwise it's restarted
+     * <br>Once complete, the file is verified against the {@link Checksum} (if specified) and moved to the target, replacing any existing file
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to download from
+     * @param   path        the file to download to
+     * @param   checksum    the {@link Checksum} the file must match, or {@code null} to not verify it
+     *
+     * @return              {@code true} if the file was downloaded (and matches the checksum), otherwise {@code false}
+     */
+    public static boolean download(@NotNull String userAgent, @NotNull String urlString, @NotNull Path path, @Nullable Checksum checksum) {
+        final Path part = path.resolveSibling(path.getFileName() + ".part");
+        final Path validatorFile = path.resolveSibling(path.getFileName() + ".part.validator");
+        final IOConsumer<Map<String, String>> headers = map -> {
+            map.put("Accept-Encoding", "identity");
+            if (!Files.exists(part)) return;
+            // Resume if a part file exists and a change of the file would be noticed
+            final String validator = Files.exists(validatorFile) ? new String(Files.readAllBytes(validatorFile), StandardCharsets.UTF_8) : null;
+            if (validator == null && checksum == null) return;
+            map.put("Range", "bytes=" + Files.size(part) + "-");
+            if (validator != null) map.put("If-Range", validator);
+        };
+        // Not limited by HttpLimits, the body is written to disk
+        final boolean downloaded = request("GET", userAgent, urlString, headers, null, new HttpCall(-1, Duration.ZERO), response -> {
+            long offset = Files.exists(part) ? Files.size(part) : 0;
+            final int responseCode = response.code;
+            if (responseCode == 416) {
+                // Range not satisfiable, the part file may already be complete
+                final String contentRange = response.header("Content-Range");
+                if (contentRange == null || !contentRange.equals("bytes */" + offset)) {
+                    Files.delete(part);
+                    return false;
+                }
+            } else {
+                if (responseCode == 200) {
+                    // A new download, remember what it's a download of
+                    offset = 0;
+                    final String validator = validator(response);
+                    if (validator == null) {
+                        Files.deleteIfExists(validatorFile);
+                    } else {
+                        Files.write(validatorFile, validator.getBytes(StandardCharsets.UTF_8));
+                    }
+                } else if (responseCode != 206 || !String.valueOf(response.header("Content-Range")).startsWith("bytes " + offset + "-")) {
+                    return false;
+                }
+                final long contentLength = response.contentLength();
+                try (final FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     final ReadableByteChannel input = Channels.newChannel(response.rawBody())) {
+                    channel.truncate(offset);
+                    long position = offset;
+                    long transferred;
+                    while ((transferred = channel.transferFrom(input, position, DOWNLOAD_CHUNK)) > 0) position += transferred;
+                    if (contentLength != -1 && position != offset + contentLength) throw new IOException("Download ended early");
+                }
+            }
+
+            return complete(part, path, checksum);
+        }).orElse(false);
+
+        // The validator is only needed to resume the part file
+        if (!Files.exists(part)) try {
+            Files.deleteIfExists(validatorFile);
+        } catch (final IOException e) {
+            // Ignored by the next download, which has no part file to resume
+        }
+        return downloaded;
+    }
+
+    /**
+     * Downloads the response of a GET request to the specified file, fetching up to {@code segments} byte ranges of it concurrently
+     * <br>If the server advertises {@code Accept-Ranges: bytes} and a {@code Content-Length} for the URL, a {@code .seg} file is pre-allocated and split into ranges (of at least 1 MiB), each fetched on the {@link #async() default executor} and written straight into its region of the file. The calling thread fetches ranges too, so it never only waits on a busy executor
+     * <br>Otherwise (or if an interrupted download can be {@link #download(String, String, Path, Checksum) resumed}), the file is downloaded as a single stream instead. An interrupted segmented download can't be resumed, its {@code .seg} file is discarded by the next attempt
+     * <br>Once complete, the file is verified against the {@link Checksum} (if specified) and moved to the target, replacing any existing file
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to download from
+     * @param   path        the file to download to
+     * @param   checksum    the {@link Checksum} the file must match, or {@code null} to not verify it
+     * @param   segments    the maximum amount of ranges to fetch concurrently
+     *
+     * @return              {@code true} if the file was downloaded (and matches the checksum), otherwise {@code false}
+     */
+    public static boolean download(@NotNull String userAgent, @NotNull String urlString, @NotNull Path path, @Nullable Checksum checksum, int segments) {
+        // Never use the .part file, the single-stream resume would take a pre-allocated one as partially (or fully) downloaded
+        if (segments < 2 || Files.exists(path.resolveSibling(path.getFileName() + ".part"))) return download(userAgent, urlString, path, checksum);
+        final Path part = path.resolveSibling(path.getFileName() + ".seg");
+
+        // Check whether the server supports ranges
+        final HttpCall unlimited = new HttpCall(-1, Duration.ZERO);
+        final Optional<String[]> probe = request("HEAD", userAgent, urlString, map -> map.put("Accept-Encoding", "identity"), null, unlimited, response -> {
+            final String acceptRanges = response.header("Accept-Ranges");
+            final long contentLength = response.contentLength();
+            if (response.code != 200 || acceptRanges == null || !acceptRanges.trim().equalsIgnoreCase("bytes") || contentLength < 2 * MIN_SEGMENT) return null;
+            // Makes ranges fail if the file changes mid-download
+            return new String[]{String.valueOf(contentLength), validator(response)};
+        });
+        if (!probe.isPresent()) return download(userAgent, urlString, path, checksum);
+        final long length = Long.parseLong(probe.get()[0]);
+        final String validator = probe.get()[1];
+        final int count = (int) Math.min(segments, length / MIN_SEGMENT);
+        final long segmentLength = (length + count - 1) / count;
+
+        // Pre-allocate the file and fetch the ranges
+        boolean success = false;
+        try (final FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[1]), length - 1);
+            final AtomicInteger next = new AtomicInteger();
+            final AtomicBoolean failed = new AtomicBoolean();
+            final CountDownLatch done = new CountDownLatch(count);
+            final Runnable worker = () -> {
+                int index;
+                while ((index = next.getAndIncrement()) < count) try {
+                    final long start = index * segmentLength;
+                    if (!failed.get() && !downloadRange(userAgent, urlString, channel, start, Math.min(start + segmentLength, length) - 1, validator, unlimited)) failed.set(true);
+                } catch (final RuntimeException e) {
+                    failed.set(true);
+                } finally {
+                    done.countDown();
+                }
+            };
+            final Executor executor = async().executor;
+            for (int i = 1; i < count; i++) try {
+                executor.execute(worker);
+            } catch (final RejectedExecutionException e) {
+                break;
+            }
+            worker.run();
+            done.await();
+            success = !failed.get();
+        } catch (final IOException e) {
+            // Couldn't create the file
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Verify and move
+        try {
+            if (success) return complete(part, path, checksum);
+            Files.deleteIfExists(part);
+        } catch (final IOException e) {
+            // Couldn't verify, move, or clean up
+        }
+        return false;
+    }
+
+    /**
+     * Fetches a byte range of a file, writing it into the same region of a {@link FileChannel}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to download from
+     * @param   channel     the {@link FileChannel} to write to
+     * @param   start       the first byte of the range
+     * @param   end         the last byte of the range (inclusive)
+     * @param   validator   the {@code ETag} or {@code Last-Modified} of the file, or {@code null} if unknown
+     * @param   call        the {@link HttpCall} the range is fetched for
+     *
+     * @return              {@code true} if the whole range was written, otherwise {@code false}
+     */
+    private static boolean downloadRange(@NotNull String userAgent, @NotNull String urlString, @NotNull FileChannel channel, long start, long end, @Nullable String validator, @NotNull HttpCall call) {
+        final IOConsumer<Map<String, String>> headers = map -> {
+            map.put("Accept-Encoding", "identity");
+            map.put("Range", "bytes=" + start + "-" + end);
+            if (validator != null) map.put("If-Range", validator);
+        };
+        return request("GET", userAgent, urlString, headers, null, call, response -> {
+            if (response.code != 206 || !String.valueOf(response.header("Content-Range")).startsWith("bytes " + start + "-" + end + "/")) return false;
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(DOWNLOAD_BUFFER, end - start + 1));
+            long position = start;
+            try (final ReadableByteChannel input = Channels.newChannel(response.rawBody())) {
+                while (position <= end) {
+                    buffer.clear();
+                    if (end - position + 1 < buffer.capacity()) buffer.limit((int) (end - position + 1));
+                    if (input.read(buffer) == -1) break;
+                    buffer.flip();
+                    while (buffer.hasRemaining()) position += channel.write(buffer, position);
+                }
+            }
+            return position == end + 1;
+        }).orElse(false);
+    }
+
+    /**
+     * Gets the validator of a response to send as {@code If-Range}, so a range request fails if the file changed
+     *
+     * @param   response    the {@link Response}
+     *
+     * @return              the strong {@code ETag} of the response, otherwise its {@code Last-Modified} (weak ETags aren't allowed in {@code If-Range}), or {@code null} if it has neither
+     */
+    @Nullable
+    private static String validator(@NotNull Response response) {
+        final String etag = response.header("ETag");
+        return etag == null || etag.startsWith("W/") ? response.header("Last-Modified") : etag;
+    }
+
+    /**
+     * Verifies a downloaded {@code .part} (or {@code .seg}) file and moves it to its target, replacing any existing file
+     *
+     * @param   part        the downloaded file
+     * @param   path        the file to move it to
+     * @param   checksum    the {@link Checksum} the file must match, or {@code null} to not verify it
+     *
+     * @return              {@code true} if the file was moved, {@code false} if it didn't match the checksum (and was deleted)
+     *
+     * @throws  IOException if the file couldn't be verified or moved
+     */
+    private static boolean complete(@NotNull Path part, @NotNull Path path, @Nullable Checksum checksum) throws IOException {
+        if (checksum != null && !checksum.matches(part)) {
+            Files.delete(part);
+            return false;
+        }
+        try {
+            Files.move(part, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(part, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
     }
 
     /**
@@ -84,21 +781,7 @@ public class HttpUtility {
      * @return              the response code of the request
      */
     public static int postJson(@NotNull String userAgent, @NotNull String urlString, @NotNull JsonElement data) {
-        int responseCode = -1;
-        HttpURLConnection connection = null;
-        try {
-            connection = (HttpURLConnection) URI.create(urlString).toURL().openConnection();
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("User-Agent", userAgent);
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setDoOutput(true);
-            connection.getOutputStream().write(data.toString().getBytes());
-            responseCode = connection.getResponseCode();
-        } catch (final IOException ignored) {
-            // Ignored
-        }
-        if (connection != null) connection.disconnect();
-        return responseCode;
+        return sendJson("POST", userAgent, urlString, data);
     }
 
     /**
@@ -111,21 +794,7 @@ public class HttpUtility {
      * @return              the response code of the request
      */
     public static int putJson(@NotNull String userAgent, @NotNull String urlString, @NotNull JsonElement data) {
-        int responseCode = -1;
-        HttpURLConnection connection = null;
-        try {
-            connection = (HttpURLConnection) URI.create(urlString).toURL().openConnection();
-            connection.setRequestMethod("PUT");
-            connection.setRequestProperty("User-Agent", userAgent);
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setDoOutput(true);
-            connection.getOutputStream().write(data.toString().getBytes());
-            responseCode = connection.getResponseCode();
-        } catch (final IOException ignored) {
-            // Ignored
-        }
-        if (connection != null) connection.disconnect();
-        return responseCode;
+        return sendJson("PUT", userAgent, urlString, data);
     }
 
     /**
@@ -138,21 +807,7 @@ public class HttpUtility {
      * @return              the response code of the request
      */
     public static int patchJson(@NotNull String userAgent, @NotNull String urlString, @NotNull JsonElement data) {
-        int responseCode = -1;
-        HttpURLConnection connection = null;
-        try {
-            connection = (HttpURLConnection) URI.create(urlString).toURL().openConnection();
-            connection.setRequestMethod("PATCH");
-            connection.setRequestProperty("User-Agent", userAgent);
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setDoOutput(true);
-            connection.getOutputStream().write(data.toString().getBytes());
-            responseCode = connection.getResponseCode();
-        } catch (final IOException ignored) {
-            // Ignored
-        }
-        if (connection != null) connection.disconnect();
-        return responseCode;
+        return sendJson("PATCH", userAgent, urlString, data);
     }
 
     /**
@@ -164,18 +819,859 @@ public class HttpUtility {
      * @return              the response code of the request
      */
     public static int delete(@NotNull String userAgent, @NotNull String urlString) {
-        int responseCode = -1;
-        HttpURLConnection connection = null;
+        return request("DELETE", userAgent, urlString, null, null, null, response -> response.code).orElse(-1);
+    }
+
+    /**
+     * Sends a POST request to the specified URL with the contents of the specified file as its body
+     * <br>The file is streamed with a fixed length (or chunked if it's {@link Compression#shouldCompress(long) compressed}), so it's never fully loaded into memory
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the POST request to
+     * @param   contentType the {@code Content-Type} of the body
+     * @param   body        the file to send
+     *
+     * @return              the response code of the request, or {@code -1} if it failed
+     */
+    public static int post(@NotNull String userAgent, @NotNull String urlString, @NotNull String contentType, @NotNull Path body) {
+        return send("POST", userAgent, urlString, RequestBody.of(contentType, body));
+    }
+
+    /**
+     * Sends a POST request to the specified URL with the specified {@link InputStream} as its (streamed) body
+     * <br>The stream is read until its end but not closed. Since it can only be read once, the request is never retried
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the POST request to
+     * @param   contentType the {@code Content-Type} of the body
+     * @param   body        the {@link InputStream} to send
+     *
+     * @return              the response code of the request, or {@code -1} if it failed
+     */
+    public static int post(@NotNull String userAgent, @NotNull String urlString, @NotNull String contentType, @NotNull InputStream body) {
+        return send("POST", userAgent, urlString, RequestBody.of(contentType, body));
+    }
+
+    /**
+     * Sends a PUT request to the specified URL with the contents of the specified file as its body
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the PUT request to
+     * @param   contentType the {@code Content-Type} of the body
+     * @param   body        the file to send
+     *
+     * @return              the response code of the request, or {@code -1} if it failed
+     *
+     * @see                 #post(String, String, String, Path)
+     */
+    public static int put(@NotNull String userAgent, @NotNull String urlString, @NotNull String contentType, @NotNull Path body) {
+        return send("PUT", userAgent, urlString, RequestBody.of(contentType, body));
+    }
+
+    /**
+     * Sends a PUT request to the specified URL with the specified {@link InputStream} as its (streamed) body
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the PUT request to
+     * @param   contentType the {@code Content-Type} of the body
+     * @param   body        the {@link InputStream} to send
+     *
+     * @return              the response code of the request, or {@code -1} if it failed
+     *
+     * @see                 #post(String, String, String, InputStream)
+     */
+    public static int put(@NotNull String userAgent, @NotNull String urlString, @NotNull String contentType, @NotNull InputStream body) {
+        return send("PUT", userAgent, urlString, RequestBody.of(contentType, body));
+    }
+
+    /**
+     * Sends a POST request to the specified URL with a {@code multipart/form-data} body, see {@link #postMultipart(String, String, List, UploadProgress)}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the POST request to
+     * @param   parts       the {@link FormPart FormParts} of the body
+     *
+     * @return              the response code of the request, or {@code -1} if it failed
+     */
+    public static int postMultipart(@NotNull String userAgent, @NotNull String urlString, @NotNull List<FormPart> parts) {
+        return postMultipart(userAgent, urlString, parts, null);
+    }
+
+    /**
+     * Sends a POST request to the specified URL with a {@code multipart/form-data} body
+     * <br>The body is sent chunked, with files streamed through a {@link FileChannel} into the connection, so uploads of any size use a constant amount of memory
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the POST request to
+     * @param   parts       the {@link FormPart FormParts} of the body
+     * @param   progress    the {@link UploadProgress} to report the progress to, or {@code null}
+     *
+     * @return              the response code of the request, or {@code -1} if it failed (or a file couldn't be read)
+     */
+    public static int postMultipart(@NotNull String userAgent, @NotNull String urlString, @NotNull List<FormPart> parts, @Nullable UploadProgress progress) {
+        return send("POST", userAgent, urlString, RequestBody.multipart(parts, progress));
+    }
+
+    /**
+     * Sends a request with the specified method to the specified URL with the specified {@link JsonElement JSON data}
+     * <br>The JSON is streamed (UTF-8) into the connection instead of being serialized to a {@link String} first, see {@link RequestBody#json(JsonElement)}
+     *
+     * @param   method      the request method to use
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the request to
+     * @param   data        the {@link JsonElement JSON data} to send with the request
+     *
+     * @return              the response code of the request
+     */
+    private static int sendJson(@NotNull String method, @NotNull String userAgent, @NotNull String urlString, @NotNull JsonElement data) {
+        return send(method, userAgent, urlString, RequestBody.json(data));
+    }
+
+    /**
+     * Sends a request with the specified method and {@link RequestBody} to the specified URL
+     *
+     * @param   method      the request method to use
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the request to
+     * @param   body        the {@link RequestBody}, or {@code null} if it couldn't be created
+     *
+     * @return              the response code of the request, or {@code -1} if it failed
+     */
+    private static int send(@NotNull String method, @NotNull String userAgent, @NotNull String urlString, @Nullable RequestBody body) {
+        if (body == null) return -1;
+        return request(method, userAgent, urlString, null, body, null, response -> response.code).orElse(-1);
+    }
+
+    /**
+     * Runs a GET request through {@link SingleFlight} if it's enabled, so identical concurrent requests share one result
+     *
+     * @param   type        the type of result (distinguishes requests for the same URL that are parsed differently)
+     * @param   userAgent   the user agent of the request
+     * @param   urlString   the URL of the request
+     * @param   request     the request to run
+     *
+     * @param   <T>         the type of the result
+     *
+     * @return              the result of the request
+     */
+    @NotNull
+    private static <T> Optional<T> coalesce(@NotNull String type, @NotNull String userAgent, @NotNull String urlString, @NotNull Supplier<Optional<T>> request) {
+        return SingleFlight.isEnabled() ? SingleFlight.run("GET " + type + " " + urlString + " " + userAgent, request) : request.get();
+    }
+
+    /**
+     * Sends a request, applying the {@link RateLimiter} and {@link CircuitBreaker} of the host, retrying according to the default {@link RetryPolicy} (for idempotent methods), and enforcing the {@link HttpLimits}
+     * <br>Any {@link IOException} is swallowed, making the result empty
+     *
+     * @param   method      the request method to use
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the request to
+     * @param   headers     the function adding extra request headers (called for every attempt), or {@code null}
+     * @param   body        the {@link RequestBody}, or {@code null} if the request has no body
+     * @param   call        the {@link HttpCall} to abort the request with and take limits from, or {@code null}
+     * @param   exchange    the function handling the {@link Response} (may return {@code null})
+     *
+     * @param   <T>         the type of the result
+     *
+     * @return              the result of the exchange, or empty if the request failed
+     */
+    @NotNull
+    private static <T> Optional<T> request(@NotNull String method, @NotNull String userAgent, @NotNull String urlString, @Nullable IOConsumer<Map<String, String>> headers, @Nullable RequestBody body, @Nullable HttpCall call, @NotNull IOFunction<Response, T> exchange) {
+        final Duration timeout = HttpLimits.getTimeout(call);
+        final HttpCall limitedCall = call == null && timeout != null ? new HttpCall() : call;
+        if (limitedCall != null && timeout != null) limitedCall.startTimeout(timeout);
         try {
-            connection = (HttpURLConnection) URI.create(urlString).toURL().openConnection();
-            connection.setRequestMethod("DELETE");
-            connection.setRequestProperty("User-Agent", userAgent);
-            responseCode = connection.getResponseCode();
-        } catch (final IOException ignored) {
-            // Ignored
-        }
-        if (connection != null) connection.disconnect();
-        return responseCode;
+            return attempts(method, userAgent, urlString, headers, body, limitedCall, HttpLimits.getMaxBodyBytes(call), exchange);
+        } finally {
+            if (limitedCall != null) limitedCall.finish();
+        }
+    }
+
+    /**
+     * Runs the attempts of a request, see {@link #request(String, String, String, IOConsumer, RequestBody, HttpCall, IOFunction)}
+     * <br>A {@link RuntimeException} thrown by the exchange aborts the connection, is recorded (as an aborted attempt, so a half-open {@link CircuitBreaker} lets the next trial through) and rethrown without retrying
+     *
+     * @param   method      the request method to use
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the request to
+     * @param   headers     the function adding extra request headers (called for every attempt), or {@code null}
+     * @param   body        the {@link RequestBody}, or {@code null} if the request has no body
+     * @param   call            the {@link HttpCall} to abort the request with, or {@code null}
+     * @param   maxBodyBytes    the maximum amount of response body bytes, or {@code -1} for no limit
+     * @param   exchange        the function handling the {@link Response} (may return {@code null})
+     *
+     * @param   <T>             the type of the result
+     *
+     * @return                  the result of the exchange, or empty if the request failed
+     */
+    @NotNull
+    private static <T> Optional<T> attempts(@NotNull String method, @NotNull String userAgent, @NotNull String urlString, @Nullable IOConsumer<Map<String, String>> headers, @Nullable RequestBody body, @Nullable HttpCall call, long maxBodyBytes, @NotNull IOFunction<Response, T> exchange) {
+        final String host = host(urlString);
+        final RateLimiter limiter = RateLimiter.isEnabled() ? RateLimiter.get(host) : null;
+        final CircuitBreaker breaker = CircuitBreaker.isEnabled() ? CircuitBreaker.get(host) : null;
+        final RetryPolicy retryPolicy = RetryPolicy.isIdempotent(method) && (body == null || body.repeatable) ? RetryPolicy.getDefault() : RetryPolicy.NONE;
+        for (int attempt = 0;; attempt++) {
+            if (call != null && call.isAborted()) return Optional.empty();
+            if (limiter != null) try {
+                limiter.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+            if (breaker != null && !breaker.allowRequest()) return Optional.empty();
+
+            // Attempt
+            final long start = System.nanoTime();
+            long connected = -1;
+            long requestBytes = 0;
+            T result = null;
+            IOException exception = null;
+            RuntimeException unchecked = null;
+            HttpTransport.Exchange connection = null;
+            Response response = null;
+            try {
+                final Map<String, String> map = new LinkedHashMap<>();
+                map.put("User-Agent", userAgent);
+                if (Compression.isEnabled()) map.put("Accept-Encoding", "gzip, deflate");
+                if (body != null) body.addHeaders(map);
+                if (headers != null) headers.accept(map);
+                connection = HttpTransport.getDefault().open(method, urlString, map, body == null ? HttpTransport.NO_BODY : body.streamLength());
+                if (call != null) call.onAbort(connection::abort);
+                connected = System.nanoTime();
+                if (body != null) try (final CountingOutputStream output = new CountingOutputStream(connection.getOutputStream())) {
+                    body.write(output);
+                    requestBytes = output.count;
+                }
+                response = new Response(connection, maxBodyBytes);
+                result = exchange.apply(response);
+            } catch (final IOException e) {
+                exception = e;
+            } catch (final RuntimeException e) {
+                if (e instanceof JsonParseException && e.getCause() instanceof IOException && !(e.getCause() instanceof MalformedJsonException)) {
+                    // Gson wraps failures of the underlying stream (such as an exceeded body limit)
+                    exception = (IOException) e.getCause();
+                } else {
+                    // Thrown by the exchange function (such as a JsonSyntaxException), the rest of the response is unusable
+                    unchecked = e;
+                    if (connection != null) connection.abort();
+                }
+            }
+            if (exception instanceof HttpLimitException) {
+                // Close the connection right away instead of draining the rest of the body
+                if (connection != null) connection.abort();
+                if (call != null) call.limitExceeded((HttpLimitException) exception);
+            }
+            if (call != null && call.getLimitExceeded() != null) exception = call.getLimitExceeded();
+            final boolean aborted = unchecked != null || exception instanceof HttpLimitException || (call != null && call.isAborted());
+            final int responseCode = response == null ? -1 : response.code;
+            // Error responses (such as a 404 body) also throw, so only count it as an I/O failure if there was no error response
+            final boolean ioFailure = exception != null && (responseCode == -1 || responseCode < 400);
+            if (limiter != null && response != null) limiter.observe(responseCode, response::header);
+            if (HttpMetrics.isEnabled()) {
+                final long end = System.nanoTime();
+                HttpMetrics.record(new HttpEvent(method, urlString, host, attempt, connected == -1 ? -1 : connected - start, response == null ? -1 : response.receivedAt - start, end - start, requestBytes, response == null ? 0 : response.bytesRead(), responseCode, unchecked != null ? unchecked : exception));
+            }
+            if (connection != null && unchecked == null) connection.release();
+
+            // Record and retry
+            if (breaker != null) {
+                if (aborted) {
+                    breaker.recordAborted();
+                } else if (ioFailure || responseCode >= 500) {
+                    breaker.recordFailure();
+                } else {
+                    breaker.recordSuccess();
+                }
+            }
+            if (unchecked != null) throw unchecked;
+            if (attempt >= retryPolicy.maxRetries || !(ioFailure || RetryPolicy.isRetryable(responseCode)) || aborted) return Optional.ofNullable(result);
+            try {
+                Thread.sleep(retryPolicy.getDelayMillis(attempt));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.ofNullable(result);
+            }
+        }
+    }
+
+    /**
+     * Gets the lowercase host of a URL
+     *
+     * @param   urlString   the URL
+     *
+     * @return              the host, or an empty {@link String} if the URL has none
+     */
+    @NotNull
+    private static String host(@NotNull String urlString) {
+        final String host = URI.create(urlString).getHost();
+        return host == null ? "" : host.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads all remaining bytes of an {@link InputStream}
+     *
+     * @param   stream      the {@link InputStream} to read
+     *
+     * @return              the bytes read
+     *
+     * @throws  IOException if the stream couldn't be read
+     */
+    private static byte[] readBytes(@NotNull InputStream stream) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) != -1) output.write(buffer, 0, read);
+        return output.toByteArray();
+    }
+
+    /**
+     * Reads the body of a {@link Response} as a {@link String}
+     * <br>The body is read into a per-thread buffer (pre-sized from the {@code Content-Length} if it's known, up to 1 MiB, and grown as bytes arrive) and decoded once, so the only allocation is usually the resulting {@link String}
+     *
+     * @param   response    the {@link Response}
+     *
+     * @return              the decoded body
+     *
+     * @throws  IOException if the body couldn't be read
+     */
+    @NotNull
+    private static String readString(@NotNull Response response) throws IOException {
+        final InputStream stream = response.body();
+        final long contentLength = response.header("Content-Encoding") == null ? response.contentLength() : -1;
+        byte[] buffer = READ_BUFFER.get();
+        // Never trust the declared length for more than the pooled size, the server may not send that much
+        if (contentLength >= buffer.length) buffer = new byte[(int) Math.min(contentLength + 1, MAX_POOLED_BUFFER)];
+
+        // Read
+        int length = 0;
+        int read;
+        while ((read = stream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length == buffer.length) {
+                if (length >= MAX_ARRAY_LENGTH) throw new IOException("Response body is too large to read as a String");
+                buffer = Arrays.copyOf(buffer, (int) Math.min(buffer.length * 2L, MAX_ARRAY_LENGTH));
+            }
+        }
+        if (buffer.length <= MAX_POOLED_BUFFER) READ_BUFFER.set(buffer);
+        return new String(buffer, 0, length, response.charset());
+    }
+
+    /**
+     * The body of a request, streamed into the connection
+     */
+    private static class RequestBody {
+        /**
+         * The {@code Content-Type} of the body
+         */
+        @NotNull private final String contentType;
+        /**
+         * The length of the body in bytes, or {@code -1} if it's unknown (sent chunked)
+         */
+        private final long length;
+        /**
+         * Whether the body is gzipped while it's written
+         */
+        private final boolean compress;
+        /**
+         * Whether the body can be written more than once (so the request can be retried)
+         */
+        private final boolean repeatable;
+        /**
+         * The function writing the (uncompressed) body
+         */
+        @NotNull private final IOConsumer<OutputStream> writer;
+
+        /**
+         * Constructs a new {@link RequestBody}
+         *
+         * @param   contentType {@link #contentType}
+         * @param   length      {@link #length}
+         * @param   compress    {@link #compress}
+         * @param   repeatable  {@link #repeatable}
+         * @param   writer      {@link #writer}
+         */
+        private RequestBody(@NotNull String contentType, long length, boolean compress, boolean repeatable, @NotNull IOConsumer<OutputStream> writer) {
+            this.contentType = contentType;
+            this.length = length;
+            this.compress = compress;
+            this.repeatable = repeatable;
+            this.writer = writer;
+        }
+
+        /**
+         * Creates a {@code application/json} {@link RequestBody} from {@link JsonElement JSON data}
+         * <br>Like {@link #of(String, InputStream)}, the JSON is only serialized ahead up to {@link Compression#getRequestThreshold()} bytes (or {@link #CHUNK_LENGTH} if request compression is disabled): a smaller body is sent from that buffer with a known length, a larger one is serialized again straight into the connection (chunked, gzipped if request compression is enabled)
+         *
+         * @param   data    the {@link JsonElement JSON data}
+         *
+         * @return          the new {@link RequestBody}
+         */
+        @NotNull
+        private static RequestBody json(@NotNull JsonElement data) {
+            final int threshold = Compression.getRequestThreshold();
+            final HeadBuffer head = new HeadBuffer(threshold >= 0 ? threshold : CHUNK_LENGTH);
+            try {
+                writeJson(head, data);
+            } catch (final IOException e) {
+                // Only thrown once the body reaches the limit of the head
+                return new RequestBody("application/json", -1, threshold >= 0, true, output -> writeJson(output, data));
+            }
+            return new RequestBody("application/json", head.size(), false, true, head::writeTo);
+        }
+
+        /**
+         * Serializes {@link JsonElement JSON data} (UTF-8) into an {@link OutputStream}
+         *
+         * @param   output      the {@link OutputStream}
+         * @param   data        the {@link JsonElement JSON data}
+         *
+         * @throws  IOException if the JSON couldn't be written
+         */
+        private static void writeJson(@NotNull OutputStream output, @NotNull JsonElement data) throws IOException {
+            final JsonWriter writer = new JsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.setLenient(true);
+            JSON_ELEMENT_ADAPTER.write(writer, data);
+            writer.flush();
+        }
+
+        /**
+         * Creates a {@link RequestBody} from a file
+         *
+         * @param   contentType {@link #contentType}
+         * @param   path        the file
+         *
+         * @return              the new {@link RequestBody}, or {@code null} if the size of the file couldn't be read
+         */
+        @Nullable
+        private static RequestBody of(@NotNull String contentType, @NotNull Path path) {
+            final long size;
+            try {
+                size = Files.size(path);
+            } catch (final IOException e) {
+                return null;
+            }
+            return new RequestBody(contentType, size, Compression.shouldCompress(size), true, output -> Files.copy(path, output));
+        }
+
+        /**
+         * Creates a {@link RequestBody} from an {@link InputStream} of unknown length
+         * <br>If request compression is enabled, up to {@link Compression#getRequestThreshold()} bytes are read ahead: a stream ending before that is sent uncompressed with a known length, a longer one is gzipped (chunked)
+         *
+         * @param   contentType {@link #contentType}
+         * @param   stream      the {@link InputStream}
+         *
+         * @return              the new {@link RequestBody}, or {@code null} if the stream couldn't be read
+         */
+        @Nullable
+        private static RequestBody of(@NotNull String contentType, @NotNull InputStream stream) {
+            InputStream body = stream;
+            final int threshold = Compression.getRequestThreshold();
+            if (threshold >= 0) try {
+                // Read ahead to find out whether the body reaches the threshold
+                final ByteArrayOutputStream head = new ByteArrayOutputStream(Math.min(threshold, CHUNK_LENGTH));
+                final byte[] buffer = new byte[CHUNK_LENGTH];
+                int read;
+                while (head.size() < threshold && (read = stream.read(buffer, 0, Math.min(buffer.length, threshold - head.size()))) != -1) head.write(buffer, 0, read);
+                if (head.size() < threshold) return new RequestBody(contentType, head.size(), false, false, head::writeTo);
+                body = new SequenceInputStream(new ByteArrayInputStream(head.toByteArray()), stream);
+            } catch (final IOException e) {
+                return null;
+            }
+            final InputStream input = body;
+            return new RequestBody(contentType, -1, threshold >= 0, false, output -> {
+                final byte[] buffer = new byte[CHUNK_LENGTH];
+                int read;
+                while ((read = input.read(buffer)) != -1) output.write(buffer, 0, read);
+            });
+        }
+
+        /**
+         * Creates a chunked {@code multipart/form-data} {@link RequestBody}
+         *
+         * @param   parts       the {@link FormPart FormParts}
+         * @param   progress    the {@link UploadProgress} to report the progress to, or {@code null}
+         *
+         * @return              the new {@link RequestBody}, or {@code null} if the size of a file couldn't be read
+         */
+        @Nullable
+        private static RequestBody multipart(@NotNull List<FormPart> parts, @Nullable UploadProgress progress) {
+            final String boundary = "HttpUtility-" + Long.toHexString(ThreadLocalRandom.current().nextLong()) + Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+            // Headers of each part (and the total length, to report progress)
+            final List<byte[]> headers = new ArrayList<>(parts.size());
+            long total = 0;
+            for (final FormPart part : parts) {
+                final StringBuilder header = new StringBuilder("--").append(boundary).append("\r\nContent-Disposition: form-data; name=\"").append(escapeFormName(part.name)).append('"');
+                if (part.filename != null) header.append("; filename=\"").append(escapeFormName(part.filename)).append('"');
+                if (part.contentType != null) header.append("\r\nContent-Type: ").append(part.contentType);
+                header.append("\r\n\r\n");
+                if (part.value != null) header.append(part.value);
+                final byte[] bytes = header.toString().getBytes(StandardCharsets.UTF_8);
+                headers.add(bytes);
+                total += bytes.length + 2;
+                if (part.path != null) try {
+                    total += Files.size(part.path);
+                } catch (final IOException e) {
+                    return null;
+                }
+            }
+            final byte[] end = ("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+            final byte[] lineEnd = "\r\n".getBytes(StandardCharsets.UTF_8);
+            final long length = total + end.length;
+
+            return new RequestBody("multipart/form-data; boundary=" + boundary, -1, false, true, output -> {
+                final ByteBuffer buffer = ByteBuffer.allocate(UPLOAD_BUFFER);
+                long sent = 0;
+                for (int i = 0; i < parts.size(); i++) {
+                    final byte[] header = headers.get(i);
+                    output.write(header);
+                    sent += header.length;
+
+                    // Stream the file
+                    final Path path = parts.get(i).path;
+                    if (path != null) try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                        while (channel.read(buffer) != -1) {
+                            output.write(buffer.array(), 0, buffer.position());
+                            sent += buffer.position();
+                            buffer.clear();
+                            if (progress != null) progress.progress(sent, length);
+                        }
+                    }
+
+                    output.write(lineEnd);
+                    sent += lineEnd.length;
+                    if (progress != null) progress.progress(sent, length);
+                }
+                output.write(end);
+                if (progress != null) progress.progress(sent + end.length, length);
+            });
+        }
+
+        /**
+         * Escapes a field name or file name for a {@code Content-Disposition} header of a {@code multipart/form-data} part
+         *
+         * @param   name    the name to escape
+         *
+         * @return          the escaped name
+         */
+        @NotNull
+        private static String escapeFormName(@NotNull String name) {
+            return name.replace("\r", "%0D").replace("\n", "%0A").replace("\"", "%22");
+        }
+
+        /**
+         * Adds the headers describing this body
+         *
+         * @param   headers the request headers
+         */
+        private void addHeaders(@NotNull Map<String, String> headers) {
+            headers.put("Content-Type", contentType);
+            if (compress) headers.put("Content-Encoding", "gzip");
+        }
+
+        /**
+         * Gets the amount of bytes that will be sent
+         *
+         * @return  the length of the (possibly compressed) body, or {@link HttpTransport#UNKNOWN_LENGTH} if it isn't known beforehand
+         */
+        private long streamLength() {
+            return length >= 0 && !compress ? length : HttpTransport.UNKNOWN_LENGTH;
+        }
+
+        /**
+         * Writes this body, compressing it if needed
+         *
+         * @param   output      the {@link OutputStream} of the connection
+         *
+         * @throws  IOException if the body couldn't be written
+         */
+        private void write(@NotNull OutputStream output) throws IOException {
+            if (!compress) {
+                writer.accept(output);
+                return;
+            }
+            final GZIPOutputStream gzip = new GZIPOutputStream(output, CHUNK_LENGTH);
+            writer.accept(gzip);
+            gzip.finish();
+        }
+    }
+
+    /**
+     * The response of a request attempt
+     */
+    private static class Response {
+        /**
+         * The {@link HttpTransport.Exchange} of the response
+         */
+        @NotNull private final HttpTransport.Exchange exchange;
+        /**
+         * The response code
+         */
+        private final int code;
+        /**
+         * When the response code was received ({@link System#nanoTime()})
+         */
+        private final long receivedAt;
+        /**
+         * The maximum amount of response body bytes, or {@code -1} for no limit
+         */
+        private final long maxBodyBytes;
+        /**
+         * The raw response body, counting the bytes read from it (lazily opened)
+         */
+        @Nullable private CountingInputStream rawBody;
+
+        /**
+         * Constructs a new {@link Response}, waiting for the response code
+         *
+         * @param   exchange        {@link #exchange}
+         * @param   maxBodyBytes    {@link #maxBodyBytes}
+         *
+         * @throws  IOException if no response was received
+         */
+        private Response(@NotNull HttpTransport.Exchange exchange, long maxBodyBytes) throws IOException {
+            this.exchange = exchange;
+            this.maxBodyBytes = maxBodyBytes;
+            this.code = exchange.getResponseCode();
+            this.receivedAt = System.nanoTime();
+        }
+
+        /**
+         * Gets a response header
+         *
+         * @param   name    the name of the header
+         *
+         * @return          the value of the header, or {@code null} if it's missing
+         */
+        @Nullable
+        private String header(@NotNull String name) {
+            return exchange.getHeader(name);
+        }
+
+        /**
+         * Gets the charset of the response from its {@code Content-Type}
+         *
+         * @return  the charset, or UTF-8 if it's missing or unsupported
+         */
+        @NotNull
+        private Charset charset() {
+            final String contentType = header("Content-Type");
+            if (contentType != null) for (final String parameter : contentType.split(";")) {
+                final String trimmed = parameter.trim();
+                if (!trimmed.regionMatches(true, 0, "charset=", 0, 8)) continue;
+                try {
+                    return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+                } catch (final IllegalArgumentException e) {
+                    break;
+                }
+            }
+            return StandardCharsets.UTF_8;
+        }
+
+        /**
+         * Gets the {@code Content-Length} of the response
+         *
+         * @return  the content length, or {@code -1} if it's unknown
+         */
+        private long contentLength() {
+            final String contentLength = header("Content-Length");
+            if (contentLength != null) try {
+                return Long.parseLong(contentLength.trim());
+            } catch (final NumberFormatException ignored) {
+                // Invalid, treat as unknown
+            }
+            return -1;
+        }
+
+        /**
+         * Gets the raw (still encoded) response body
+         *
+         * @return              the raw response body
+         *
+         * @throws  IOException if the response is an error, the body couldn't be opened, or its {@code Content-Length} exceeds the {@link #maxBodyBytes limit}
+         */
+        @NotNull
+        private InputStream rawBody() throws IOException {
+            if (rawBody == null) {
+                if (maxBodyBytes >= 0 && contentLength() > maxBodyBytes) throw new HttpLimitException("Response body of " + contentLength() + " bytes exceeds the limit of " + maxBodyBytes + " bytes");
+                rawBody = new CountingInputStream(exchange.getInputStream(), maxBodyBytes);
+            }
+            return rawBody;
+        }
+
+        /**
+         * Gets the response body, decoded according to its {@code Content-Encoding}
+         *
+         * @return              the decoded response body
+         *
+         * @throws  IOException if the response is an error or the body couldn't be opened
+         */
+        @NotNull
+        private InputStream body() throws IOException {
+            final InputStream raw = rawBody();
+            final InputStream decoded = Compression.decode(raw, header("Content-Encoding"));
+            // Also limit the decompressed size
+            return decoded == raw || maxBodyBytes < 0 ? decoded : new CountingInputStream(decoded, maxBodyBytes);
+        }
+
+        /**
+         * Gets the amount of raw response body bytes read so far
+         *
+         * @return  the amount of bytes read
+         */
+        private long bytesRead() {
+            return rawBody == null ? 0 : rawBody.count;
+        }
+    }
+
+    /**
+     * An {@link InputStream} counting the bytes read from it, failing once a limit is exceeded
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        /**
+         * The maximum amount of bytes that may be read, or {@code -1} for no limit
+         */
+        private final long limit;
+        /**
+         * The amount of bytes read
+         */
+        private long count = 0;
+
+        /**
+         * Constructs a new {@link CountingInputStream}
+         *
+         * @param   stream  the {@link InputStream} to count
+         * @param   limit   {@link #limit}
+         */
+        private CountingInputStream(@NotNull InputStream stream, long limit) {
+            super(stream);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read != -1) add(1);
+            return read;
+        }
+
+        @Override
+        public int read(byte @NotNull [] buffer, int offset, int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read > 0) add(read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            add(skipped);
+            return skipped;
+        }
+
+        /**
+         * Counts read bytes
+         *
+         * @param   read                the amount of bytes read
+         *
+         * @throws  HttpLimitException  if the {@link #limit} was exceeded
+         */
+        private void add(long read) throws HttpLimitException {
+            count += read;
+            if (limit >= 0 && count > limit) throw new HttpLimitException("Response body exceeded the limit of " + limit + " bytes");
+        }
+    }
+
+    /**
+     * An {@link OutputStream} counting the bytes written to it
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        /**
+         * The amount of bytes written
+         */
+        private long count = 0;
+
+        /**
+         * Constructs a new {@link CountingOutputStream}
+         *
+         * @param   stream  the {@link OutputStream} to count
+         */
+        private CountingOutputStream(@NotNull OutputStream stream) {
+            super(stream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte @NotNull [] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+    }
+
+    /**
+     * An {@link OutputStream} buffering the start of a request body, which fails once the body reaches its limit
+     */
+    private static class HeadBuffer extends OutputStream {
+        /**
+         * The size at which writing fails
+         */
+        private final int limit;
+        /**
+         * The written bytes
+         */
+        private byte[] buffer;
+        /**
+         * The amount of written bytes
+         */
+        private int count = 0;
+
+        /**
+         * Constructs a new {@link HeadBuffer}
+         *
+         * @param   limit   {@link #limit}
+         */
+        private HeadBuffer(int limit) {
+            this.limit = limit;
+            this.buffer = new byte[Math.min(limit, CHUNK_LENGTH)];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte @NotNull [] bytes, int offset, int length) throws IOException {
+            if (length >= limit - count) throw new IOException("Body reached " + limit + " bytes");
+            if (count + length > buffer.length) buffer = Arrays.copyOf(buffer, Math.min(Math.max(buffer.length * 2, count + length), limit));
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+
+        /**
+         * Gets the amount of written bytes
+         *
+         * @return  {@link #count}
+         */
+        private int size() {
+            return count;
+        }
+
+        /**
+         * Writes the written bytes to another {@link OutputStream}
+         *
+         * @param   output      the {@link OutputStream}
+         *
+         * @throws  IOException if the bytes couldn't be written
+         */
+        private void writeTo(@NotNull OutputStream output) throws IOException {
+            output.write(buffer, 0, count);
+        }
     }
 
     /**
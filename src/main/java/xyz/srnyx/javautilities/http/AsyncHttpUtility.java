@@ -0,0 +1,820 @@
+package xyz.srnyx.javautilities.http;
+
+import com.google.gson.JsonElement;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Asynchronous counterpart of {@link HttpUtility}, running every request on an {@link Executor} and returning {@link CompletableFuture CompletableFutures}
+ * <br>Obtain an instance using {@link HttpUtility#async()} or {@link HttpUtility#async(Executor)}
+ */
+public class AsyncHttpUtility {
+    /**
+     * The amount of threads used by the default {@link Executor}
+     */
+    public static final int DEFAULT_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    /**
+     * The shared {@link ScheduledExecutorService}, lazily created by {@link #scheduler()}
+     */
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * The {@link Executor} that requests are run on
+     */
+    @NotNull public final Executor executor;
+
+    /**
+     * Constructs a new {@link AsyncHttpUtility} instance
+     *
+     * @param   executor    {@link #executor}
+     */
+    public AsyncHttpUtility(@NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sends a GET request to the specified URL and completes with the result of the specified function
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL to request from
+     * @param   function    the function to apply to the {@link InputStreamReader}
+     *
+     * @param   <T>         the type of the result of the specified function
+     *
+     * @return              a {@link CompletableFuture} completing with the result of the specified function, or empty if the request failed
+     *
+     * @see                 HttpUtility#get(String, String, Function)
+     */
+    @NotNull
+    public <T> CompletableFuture<Optional<T>> get(@NotNull String userAgent, @NotNull String url, @NotNull Function<InputStreamReader, T> function) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.get(userAgent, url, function), executor);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and completes with the result of the specified function, hedging the request according to the {@link HedgingPolicy}
+     * <br>If no response has arrived after the policy's delay (and its budget allows it), an identical request is sent. The first successful response is used and the other request is aborted
+     * <br><b>Only use this for idempotent requests</b>
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL to request from
+     * @param   function    the function to apply to the {@link InputStreamReader}
+     * @param   policy      the {@link HedgingPolicy} to use
+     *
+     * @param   <T>         the type of the result of the specified function
+     *
+     * @return              a {@link CompletableFuture} completing with the result of the specified function, or empty if both requests failed
+     */
+    @NotNull
+    public <T> CompletableFuture<Optional<T>> get(@NotNull String userAgent, @NotNull String url, @NotNull Function<InputStreamReader, T> function, @NotNull HedgingPolicy policy) {
+        policy.recordRequest();
+        final CompletableFuture<Optional<T>> future = new CompletableFuture<>();
+        final HttpCall primary = new HttpCall();
+        final HttpCall hedge = new HttpCall();
+        final AtomicInteger outstanding = new AtomicInteger(1);
+        hedgedAttempt(userAgent, url, function, policy, future, primary, hedge, outstanding);
+        final ScheduledFuture<?> scheduled = scheduler().schedule(() -> {
+            if (future.isDone() || !policy.tryHedge()) return;
+            outstanding.incrementAndGet();
+            hedgedAttempt(userAgent, url, function, policy, future, hedge, primary, outstanding);
+        }, policy.getDelayMillis(), TimeUnit.MILLISECONDS);
+        future.whenComplete((result, throwable) -> scheduled.cancel(false));
+        return future;
+    }
+
+    /**
+     * Runs one attempt of a hedged request
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL to request from
+     * @param   function    the function to apply to the {@link InputStreamReader}
+     * @param   policy      the {@link HedgingPolicy}
+     * @param   future      the {@link CompletableFuture} to complete
+     * @param   call        the {@link HttpCall} of this attempt
+     * @param   other       the {@link HttpCall} of the other attempt, aborted if this one wins
+     * @param   outstanding the amount of attempts that haven't finished yet
+     *
+     * @param   <T>         the type of the result of the specified function
+     */
+    private <T> void hedgedAttempt(@NotNull String userAgent, @NotNull String url, @NotNull Function<InputStreamReader, T> function, @NotNull HedgingPolicy policy, @NotNull CompletableFuture<Optional<T>> future, @NotNull HttpCall call, @NotNull HttpCall other, @NotNull AtomicInteger outstanding) {
+        CompletableFuture.runAsync(() -> {
+            final long start = System.nanoTime();
+            Optional<T> result = Optional.empty();
+            try {
+                result = HttpUtility.getStream(userAgent, url, stream -> function.apply(new InputStreamReader(stream)), call);
+            } finally {
+                if (result.isPresent()) {
+                    policy.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (future.complete(result)) other.abort();
+                } else if (outstanding.decrementAndGet() == 0) {
+                    future.complete(Optional.empty());
+                }
+            }
+        }, executor);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and completes with the result as a {@link String}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     *
+     * @return              a {@link CompletableFuture} completing with the {@link String}, or empty if the request failed
+     *
+     * @see                 HttpUtility#getString(String, String)
+     */
+    @NotNull
+    public CompletableFuture<Optional<String>> getString(@NotNull String userAgent, @NotNull String urlString) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.getString(userAgent, urlString), executor);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and completes with the result as a {@link JsonElement}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     *
+     * @return              a {@link CompletableFuture} completing with the {@link JsonElement}, or empty if the request failed
+     *
+     * @see                 HttpUtility#getJson(String, String)
+     */
+    @NotNull
+    public CompletableFuture<Optional<JsonElement>> getJson(@NotNull String userAgent, @NotNull String urlString) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.getJson(userAgent, urlString), executor);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and completes with the JSON response deserialized to the specified type
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     * @param   type        the type to deserialize the response to
+     *
+     * @param   <T>         the type of the result
+     *
+     * @return              a {@link CompletableFuture} completing with the deserialized response, or empty if the request failed
+     *
+     * @see                 HttpUtility#getJson(String, String, Type)
+     */
+    @NotNull
+    public <T> CompletableFuture<Optional<T>> getJson(@NotNull String userAgent, @NotNull String urlString, @NotNull Type type) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.getJson(userAgent, urlString, type), executor);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and completes with the JSON response deserialized to the specified class
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to request from
+     * @param   type        the class to deserialize the response to
+     *
+     * @param   <T>         the type of the result
+     *
+     * @return              a {@link CompletableFuture} completing with the deserialized response, or empty if the request failed
+     *
+     * @see                 HttpUtility#getJson(String, String, Class)
+     */
+    @NotNull
+    public <T> CompletableFuture<Optional<T>> getJson(@NotNull String userAgent, @NotNull String urlString, @NotNull Class<T> type) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.getJson(userAgent, urlString, type), executor);
+    }
+
+    /**
+     * Sends a POST request to the specified URL with the specified {@link JsonElement JSON data}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the POST request to
+     * @param   data        the {@link JsonElement JSON data} to send with the POST request
+     *
+     * @return              a {@link CompletableFuture} completing with the response code of the request
+     *
+     * @see                 HttpUtility#postJson(String, String, JsonElement)
+     */
+    @NotNull
+    public CompletableFuture<Integer> postJson(@NotNull String userAgent, @NotNull String urlString, @NotNull JsonElement data) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.postJson(userAgent, urlString, data), executor);
+    }
+
+    /**
+     * Sends a PUT request to the specified URL with the specified {@link JsonElement JSON data}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the PUT request to
+     * @param   data        the {@link JsonElement JSON data} to send with the PUT request
+     *
+     * @return              a {@link CompletableFuture} completing with the response code of the request
+     *
+     * @see                 HttpUtility#putJson(String, String, JsonElement)
+     */
+    @NotNull
+    public CompletableFuture<Integer> putJson(@NotNull String userAgent, @NotNull String urlString, @NotNull JsonElement data) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.putJson(userAgent, urlString, data), executor);
+    }
+
+    /**
+     * Sends a PATCH request to the specified URL with the specified {@link JsonElement JSON data}
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the PATCH request to
+     * @param   data        the {@link JsonElement JSON data} to send with the PATCH request
+     *
+     * @return              a {@link CompletableFuture} completing with the response code of the request
+     *
+     * @see                 HttpUtility#patchJson(String, String, JsonElement)
+     */
+    @NotNull
+    public CompletableFuture<Integer> patchJson(@NotNull String userAgent, @NotNull String urlString, @NotNull JsonElement data) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.patchJson(userAgent, urlString, data), executor);
+    }
+
+    /**
+     * Sends a POST request to the specified URL with the contents of the specified file as its body
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the POST request to
+     * @param   contentType the {@code Content-Type} of the body
+     * @param   body        the file to send
+     *
+     * @return              a {@link CompletableFuture} completing with the response code of the request
+     *
+     * @see                 HttpUtility#post(String, String, String, Path)
+     */
+    @NotNull
+    public CompletableFuture<Integer> post(@NotNull String userAgent, @NotNull String urlString, @NotNull String contentType, @NotNull Path body) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.post(userAgent, urlString, contentType, body), executor);
+    }
+
+    /**
+     * Sends a POST request to the specified URL with a streamed {@code multipart/form-data} body
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the POST request to
+     * @param   parts       the {@link FormPart FormParts} of the body
+     * @param   progress    the {@link UploadProgress} to report the progress to (from the executor's thread), or {@code null}
+     *
+     * @return              a {@link CompletableFuture} completing with the response code of the request
+     *
+     * @see                 HttpUtility#postMultipart(String, String, List, UploadProgress)
+     */
+    @NotNull
+    public CompletableFuture<Integer> postMultipart(@NotNull String userAgent, @NotNull String urlString, @NotNull List<FormPart> parts, @Nullable UploadProgress progress) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.postMultipart(userAgent, urlString, parts, progress), executor);
+    }
+
+    /**
+     * Sends a PUT request to the specified URL with the contents of the specified file as its body
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the PUT request to
+     * @param   contentType the {@code Content-Type} of the body
+     * @param   body        the file to send
+     *
+     * @return              a {@link CompletableFuture} completing with the response code of the request
+     *
+     * @see                 HttpUtility#put(String, String, String, Path)
+     */
+    @NotNull
+    public CompletableFuture<Integer> put(@NotNull String userAgent, @NotNull String urlString, @NotNull String contentType, @NotNull Path body) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.put(userAgent, urlString, contentType, body), executor);
+    }
+
+    /**
+     * Sends a DELETE request to the specified URL
+     *
+     * @param   userAgent   the user agent to use
+     * @param   urlString   the URL to send the DELETE request to
+     *
+     * @return              a {@link CompletableFuture} completing with the response code of the request
+     *
+     * @see                 HttpUtility#delete(String, String)
+     */
+    @NotNull
+    public CompletableFuture<Integer> delete(@NotNull String userAgent, @NotNull String urlString) {
+        return CompletableFuture.supplyAsync(() -> HttpUtility.delete(userAgent, urlString), executor);
+    }
+
+    /**
+     * Gets the shared {@link ScheduledExecutorService} used to schedule delayed work (such as hedged requests and timeouts), which never runs requests itself
+     *
+     * @return  the shared {@link ScheduledExecutorService}
+     */
+    @NotNull
+    static synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory());
+            // Most scheduled tasks (hedges and timeouts) are cancelled, don't keep them queued until their delay ends
+            executor.setRemoveOnCancelPolicy(true);
+            scheduler = executor;
+        }
+        return scheduler;
+    }
+
+    /**
+     * Sends GET requests to all the specified URLs in parallel, passing each result to the callback as soon as it finishes
+     * <br>Requests are only handed to the {@link #executor} once a slot is free, so waiting requests never occupy a thread
+     *
+     * @param   userAgent       the user agent to use
+     * @param   urls            the URLs to request from
+     * @param   function        the function to apply to each {@link InputStreamReader}
+     * @param   maxConcurrency  the maximum amount of requests running at once
+     * @param   maxPerHost      the maximum amount of requests running at once to the same host
+     * @param   callback        the callback to pass each URL and its result to (called on the thread that ran the request)
+     *
+     * @param   <T>             the type of the result of the specified function
+     *
+     * @return                  a {@link CompletableFuture} completing with all results once every request has finished
+     */
+    @NotNull
+    public <T> CompletableFuture<Map<String, Optional<T>>> getAll(@NotNull String userAgent, @NotNull Collection<String> urls, @NotNull Function<InputStreamReader, T> function, int maxConcurrency, int maxPerHost, @NotNull BiConsumer<String, Optional<T>> callback) {
+        if (maxConcurrency < 1 || maxPerHost < 1) throw new IllegalArgumentException("Concurrency limits must be at least 1");
+        return new FanOut<>(this, userAgent, urls, function, maxConcurrency, maxPerHost, callback).start();
+    }
+
+    /**
+     * Sends GET requests to all the specified URLs in parallel, returning a {@link Stream} of the results in the order they finish
+     * <br>The {@link Stream} blocks while waiting for the next result, so it must not be consumed on a thread of the {@link #executor}
+     *
+     * @param   userAgent       the user agent to use
+     * @param   urls            the URLs to request from
+     * @param   function        the function to apply to each {@link InputStreamReader}
+     * @param   maxConcurrency  the maximum amount of requests running at once
+     * @param   maxPerHost      the maximum amount of requests running at once to the same host
+     *
+     * @param   <T>             the type of the result of the specified function
+     *
+     * @return                  a {@link Stream} of each URL and its result, in completion order
+     *
+     * @see                     #getAll(String, Collection, Function, int, int, BiConsumer)
+     */
+    @NotNull
+    public <T> Stream<Map.Entry<String, Optional<T>>> getAll(@NotNull String userAgent, @NotNull Collection<String> urls, @NotNull Function<InputStreamReader, T> function, int maxConcurrency, int maxPerHost) {
+        final BlockingQueue<Map.Entry<String, Optional<T>>> results = new LinkedBlockingQueue<>();
+        final int total = urls.size();
+        getAll(userAgent, urls, function, maxConcurrency, maxPerHost, (url, result) -> results.add(new AbstractMap.SimpleImmutableEntry<>(url, result)));
+        final Iterator<Map.Entry<String, Optional<T>>> iterator = new Iterator<Map.Entry<String, Optional<T>>>() {
+            private int taken = 0;
+
+            @Override
+            public boolean hasNext() {
+                return taken < total;
+            }
+
+            @Override
+            public Map.Entry<String, Optional<T>> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                try {
+                    final Map.Entry<String, Optional<T>> result = results.take();
+                    taken++;
+                    return result;
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a result", e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(iterator, total, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Lazily iterates over the items of all pages of a paginated response, prefetching the next pages in the background while the current one is consumed
+     * <br>Pages are requested one after another (the URL of a page is only known once the previous one is parsed), but up to {@code pagesInFlight} pages are fetched ahead of the one being consumed
+     * <br>The {@link Stream} blocks while waiting for a page, so it must not be consumed on a thread of the {@link #executor}. Closing it stops prefetching
+     *
+     * @param   userAgent       the user agent to use
+     * @param   firstUrl        the URL of the first page
+     * @param   parser          the {@link PageParser} finding the items and next page URL of each page
+     * @param   pagesInFlight   the maximum amount of pages fetched ahead of the one being consumed
+     *
+     * @param   <T>             the type of the items
+     *
+     * @return                  a {@link Stream} of the items of all pages, in order (throwing an {@link java.io.UncheckedIOException UncheckedIOException} if a page couldn't be fetched)
+     */
+    @NotNull
+    public <T> Stream<T> getPages(@NotNull String userAgent, @NotNull String firstUrl, @NotNull PageParser<T> parser, int pagesInFlight) {
+        if (pagesInFlight < 1) throw new IllegalArgumentException("Pages in flight must be at least 1");
+        final PageIterator<T> iterator = new PageIterator<>(this, userAgent, firstUrl, parser, pagesInFlight);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false).onClose(iterator::close);
+    }
+
+    /**
+     * Checks whether virtual threads are available (Java 21+)
+     *
+     * @return  {@code true} if {@link #newVirtualExecutor()} can be used, otherwise {@code false}
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        return VirtualThreads.isAvailable();
+    }
+
+    /**
+     * Creates a new {@link ExecutorService} running every request on its own virtual thread (Java 21+)
+     * <br>Blocking requests (and their functions) then no longer hold a platform thread while waiting, so tens of thousands of requests can run concurrently without a large pool
+     *
+     * @return                                  the new {@link ExecutorService}
+     *
+     * @throws  UnsupportedOperationException   if virtual threads aren't available
+     */
+    @NotNull
+    public static ExecutorService newVirtualExecutor() {
+        final ExecutorService executor = VirtualThreads.newExecutor();
+        if (executor == null) throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+        return executor;
+    }
+
+    /**
+     * Creates the {@link Executor} used by {@link HttpUtility#async()}: a {@link #newVirtualExecutor() virtual thread executor} if available, otherwise a {@link #newExecutor(int) bounded pool} of {@link #DEFAULT_THREADS} threads
+     *
+     * @return  the new {@link Executor}
+     */
+    @NotNull
+    public static Executor newDefaultExecutor() {
+        final ExecutorService executor = VirtualThreads.newExecutor();
+        return executor != null ? executor : newExecutor(DEFAULT_THREADS);
+    }
+
+    /**
+     * Creates a new bounded {@link Executor} suitable for {@link AsyncHttpUtility}
+     * <br>The executor uses at most {@code threads} daemon threads, which are stopped after being idle for 60 seconds. Extra requests are queued until a thread is free
+     *
+     * @param   threads the maximum amount of threads to use
+     *
+     * @return          the new {@link Executor}
+     */
+    @NotNull
+    public static ThreadPoolExecutor newExecutor(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Threads must be at least 1");
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Dispatches the requests of {@link #getAll(String, Collection, Function, int, int, BiConsumer)} while respecting its concurrency limits
+     *
+     * @param   <T> the type of the results
+     */
+    private static class FanOut<T> {
+        /**
+         * The {@link AsyncHttpUtility} to send the requests with
+         */
+        @NotNull private final AsyncHttpUtility async;
+        /**
+         * The user agent to request with
+         */
+        @NotNull private final String userAgent;
+        /**
+         * The function to apply to each response
+         */
+        @NotNull private final Function<InputStreamReader, T> function;
+        /**
+         * The maximum amount of requests running at once
+         */
+        private final int maxConcurrency;
+        /**
+         * The maximum amount of requests running at once to the same host
+         */
+        private final int maxPerHost;
+        /**
+         * The callback to run with each URL and its result as soon as it's done
+         */
+        @NotNull private final BiConsumer<String, Optional<T>> callback;
+        /**
+         * The URLs that weren't requested yet, in order
+         */
+        @NotNull private final List<String> pending;
+        /**
+         * The amount of running requests by host (hosts without running requests are removed)
+         */
+        @NotNull private final Map<String, Integer> runningPerHost = new HashMap<>();
+        /**
+         * The results of the finished requests by URL
+         */
+        @NotNull private final Map<String, Optional<T>> results = new ConcurrentHashMap<>();
+        /**
+         * The future completed with the {@link #results} once every request is done
+         */
+        @NotNull private final CompletableFuture<Map<String, Optional<T>>> future = new CompletableFuture<>();
+        /**
+         * The amount of running requests
+         */
+        private int running = 0;
+        /**
+         * The amount of requests that aren't done yet (pending or running)
+         */
+        private int remaining;
+
+        /**
+         * Constructs a new {@link FanOut}
+         *
+         * @param   async           {@link #async}
+         * @param   userAgent       {@link #userAgent}
+         * @param   urls            the URLs to request
+         * @param   function        {@link #function}
+         * @param   maxConcurrency  {@link #maxConcurrency}
+         * @param   maxPerHost      {@link #maxPerHost}
+         * @param   callback        {@link #callback}
+         */
+        private FanOut(@NotNull AsyncHttpUtility async, @NotNull String userAgent, @NotNull Collection<String> urls, @NotNull Function<InputStreamReader, T> function, int maxConcurrency, int maxPerHost, @NotNull BiConsumer<String, Optional<T>> callback) {
+            this.async = async;
+            this.userAgent = userAgent;
+            this.function = function;
+            this.maxConcurrency = maxConcurrency;
+            this.maxPerHost = maxPerHost;
+            this.callback = callback;
+            this.pending = new LinkedList<>(urls);
+            this.remaining = urls.size();
+        }
+
+        /**
+         * Starts dispatching the requests
+         *
+         * @return  {@link #future}
+         */
+        @NotNull
+        private CompletableFuture<Map<String, Optional<T>>> start() {
+            if (remaining == 0) future.complete(results);
+            dispatch();
+            return future;
+        }
+
+        /**
+         * Submits as many pending requests as the limits allow
+         */
+        private void dispatch() {
+            final List<String> started = new ArrayList<>();
+            synchronized (this) {
+                final Iterator<String> iterator = pending.iterator();
+                while (running < maxConcurrency && iterator.hasNext()) {
+                    final String url = iterator.next();
+                    final String host = host(url);
+                    final int hostRunning = runningPerHost.getOrDefault(host, 0);
+                    if (hostRunning >= maxPerHost) continue;
+                    iterator.remove();
+                    running++;
+                    runningPerHost.put(host, hostRunning + 1);
+                    started.add(url);
+                }
+            }
+            // Started outside the lock, as a request may finish (and dispatch again) immediately
+            for (final String url : started) async.get(userAgent, url, function)
+                    .exceptionally(throwable -> Optional.empty())
+                    .thenAccept(result -> finish(url, host(url), result));
+        }
+
+        /**
+         * Records the result of a finished request and dispatches the next ones (or completes the {@link #future} if it was the last one)
+         *
+         * @param   url     the URL that was requested
+         * @param   host    the host of the URL
+         * @param   result  the result of the request
+         */
+        private void finish(@NotNull String url, @NotNull String host, @NotNull Optional<T> result) {
+            results.put(url, result);
+            try {
+                callback.accept(url, result);
+            } finally {
+                final boolean done;
+                synchronized (this) {
+                    running--;
+                    runningPerHost.computeIfPresent(host, (key, count) -> count > 1 ? count - 1 : null);
+                    done = --remaining == 0;
+                }
+                if (done) {
+                    future.complete(results);
+                } else {
+                    dispatch();
+                }
+            }
+        }
+
+        /**
+         * Gets the host of a URL, used to apply {@link #maxPerHost}
+         *
+         * @param   url the URL
+         *
+         * @return      the lowercase host, or an empty string if the URL has none or is invalid
+         */
+        @NotNull
+        private static String host(@NotNull String url) {
+            try {
+                final String host = URI.create(url).getHost();
+                return host == null ? "" : host.toLowerCase(Locale.ROOT);
+            } catch (final IllegalArgumentException e) {
+                return "";
+            }
+        }
+    }
+
+    /**
+     * Iterates over the items of the pages of {@link #getPages(String, String, PageParser, int)}, keeping up to {@code pagesInFlight} pages fetched ahead
+     *
+     * @param   <T> the type of the items
+     */
+    private static class PageIterator<T> implements Iterator<T> {
+        /**
+         * The {@link AsyncHttpUtility} whose executor fetches the pages
+         */
+        @NotNull private final AsyncHttpUtility async;
+        /**
+         * The user agent to request with
+         */
+        @NotNull private final String userAgent;
+        /**
+         * The {@link PageParser} parsing each page
+         */
+        @NotNull private final PageParser<T> parser;
+        /**
+         * The maximum amount of fetched pages that weren't iterated yet
+         */
+        private final int pagesInFlight;
+        /**
+         * The fetched pages that weren't iterated yet, in order
+         */
+        @NotNull private final Queue<Page<T>> fetched = new ArrayDeque<>();
+        /**
+         * The items of the page being iterated
+         */
+        @NotNull private Iterator<T> current = Collections.emptyIterator();
+        /**
+         * The URL of the next page to fetch, or {@code null} if there are no more pages (or the iterator was {@link #close() closed})
+         */
+        @Nullable private String nextUrl;
+        /**
+         * The URL of the page that failed to be fetched, or {@code null} if none failed
+         */
+        @Nullable private String failedUrl;
+        /**
+         * Whether a page is being fetched
+         */
+        private boolean fetching = false;
+        /**
+         * Whether the iterator was {@link #close() closed} (so a page that is still being fetched is dropped)
+         */
+        private boolean closed = false;
+
+        /**
+         * Constructs a new {@link PageIterator} and starts fetching the first page
+         *
+         * @param   async           {@link #async}
+         * @param   userAgent       {@link #userAgent}
+         * @param   firstUrl        the URL of the first page
+         * @param   parser          {@link #parser}
+         * @param   pagesInFlight   {@link #pagesInFlight}
+         */
+        private PageIterator(@NotNull AsyncHttpUtility async, @NotNull String userAgent, @NotNull String firstUrl, @NotNull PageParser<T> parser, int pagesInFlight) {
+            this.async = async;
+            this.userAgent = userAgent;
+            this.parser = parser;
+            this.pagesInFlight = pagesInFlight;
+            this.nextUrl = firstUrl;
+            fetchMore();
+        }
+
+        /**
+         * Fetches the next page if there's room for it and no page is being fetched
+         */
+        private synchronized void fetchMore() {
+            if (fetching || nextUrl == null || failedUrl != null || fetched.size() >= pagesInFlight) return;
+            fetching = true;
+            final String url = nextUrl;
+            CompletableFuture.supplyAsync(() -> HttpUtility.getPage(userAgent, url, parser), async.executor)
+                    .exceptionally(throwable -> Optional.empty())
+                    .thenAccept(page -> {
+                        synchronized (this) {
+                            fetching = false;
+                            if (closed) {
+                                // Dropped, the iterator was closed while the page was being fetched
+                            } else if (page.isPresent()) {
+                                fetched.add(page.get());
+                                nextUrl = page.get().next;
+                            } else {
+                                failedUrl = url;
+                            }
+                            notifyAll();
+                        }
+                        fetchMore();
+                    });
+        }
+
+        /**
+         * Checks whether there are more items, waiting for the next page if it's still being fetched
+         *
+         * @return  whether there are more items
+         *
+         * @throws  UncheckedIOException    if a page failed to be fetched
+         * @throws  IllegalStateException   if the thread was interrupted while waiting
+         */
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) synchronized (this) {
+                final Page<T> page = fetched.poll();
+                if (page != null) {
+                    current = page.items.iterator();
+                    fetchMore();
+                    continue;
+                }
+                if (closed) return false;
+                if (failedUrl != null) throw new UncheckedIOException(new IOException("Failed to fetch page: " + failedUrl));
+                if (!fetching && nextUrl == null) return false;
+                try {
+                    wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a page", e);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Gets the next item, waiting for the next page if it's still being fetched
+         *
+         * @return  the next item
+         *
+         * @throws  NoSuchElementException  if there are no more items
+         * @throws  UncheckedIOException    if a page failed to be fetched
+         */
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+
+        /**
+         * Stops fetching pages and drops the fetched ones (and the one still being fetched, if any), so {@link #hasNext()} returns {@code false}
+         */
+        private synchronized void close() {
+            closed = true;
+            nextUrl = null;
+            fetched.clear();
+            current = Collections.emptyIterator();
+        }
+    }
+
+    /**
+     * A {@link ThreadFactory} creating named daemon threads, so that pending requests never keep the JVM alive
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        /**
+         * The amount of {@link DaemonThreadFactory DaemonThreadFactories} created, used to tell their threads apart
+         */
+        @NotNull private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+        /**
+         * The prefix of the names of the created threads
+         */
+        @NotNull private final String prefix = "HttpUtility-async-" + POOL_COUNTER.incrementAndGet() + "-";
+        /**
+         * The amount of threads created, used to number them
+         */
+        @NotNull private final AtomicInteger threadCounter = new AtomicInteger();
+
+        @Override @NotNull
+        public Thread newThread(@NotNull Runnable runnable) {
+            final Thread thread = new Thread(runnable, prefix + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package xyz.srnyx.javautilities.http;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+
+/**
+ * Queues JSON payloads and sends them in batches on a background thread using {@link HttpUtility#postJson(String, String, JsonElement)}, so callers never wait for HTTP (for example for webhooks or log shipping)
+ * <br>A batch is sent once it has {@link #maxBatchSize} payloads or its oldest payload has waited for {@link #maxDelay}. The queue is bounded, applying the {@link OverflowPolicy} when it's full
+ * <br>When a {@link #spillFile} is set, payloads that couldn't be sent (failed batches, or payloads left when {@link #close(Duration) closing}) are appended to it, and loaded again by the next {@link BatchSender} using the same file
+ */
+public class BatchSender implements AutoCloseable {
+    /**
+     * The amount of {@link BatchSender BatchSenders} created, used to name their threads
+     */
+    @NotNull private static final AtomicInteger SENDER_COUNTER = new AtomicInteger();
+
+    /**
+     * The user agent to send batches with
+     */
+    @NotNull public final String userAgent;
+    /**
+     * The URL to send batches to
+     */
+    @NotNull public final String url;
+    /**
+     * The maximum amount of payloads in a batch
+     */
+    public final int maxBatchSize;
+    /**
+     * The maximum time a payload waits for its batch to fill up
+     */
+    @NotNull public final Duration maxDelay;
+    /**
+     * What to do when the queue is full
+     */
+    @NotNull public final OverflowPolicy overflowPolicy;
+    /**
+     * The file unsent payloads are appended to (one JSON value per line), or {@code null} to discard them
+     */
+    @Nullable public final Path spillFile;
+    /**
+     * The function combining the payloads of a batch into the body that is sent
+     */
+    @NotNull public final Function<List<JsonElement>, JsonElement> combiner;
+    /**
+     * The queued payloads
+     */
+    @NotNull private final BlockingQueue<JsonElement> queue;
+    /**
+     * The thread sending the batches
+     */
+    @NotNull private final Thread worker;
+    /**
+     * The amount of payloads sent successfully
+     */
+    @NotNull private final AtomicLong sent = new AtomicLong();
+    /**
+     * The amount of payloads dropped because the queue was full
+     */
+    @NotNull private final AtomicLong dropped = new AtomicLong();
+    /**
+     * The amount of payloads in batches that failed to send
+     */
+    @NotNull private final AtomicLong failed = new AtomicLong();
+    /**
+     * Whether the sender was closed
+     */
+    private volatile boolean closed = false;
+    /**
+     * Whether the {@link #worker} is waiting for payloads (and may be interrupted to stop waiting)
+     */
+    private boolean waiting = false;
+
+    /**
+     * Constructs a new {@link BatchSender} sending batches as JSON arrays, with a queue of 10,000 payloads that drops new payloads when it's full
+     *
+     * @param   userAgent       {@link #userAgent}
+     * @param   url             {@link #url}
+     * @param   maxBatchSize    {@link #maxBatchSize}
+     * @param   maxDelay        {@link #maxDelay}
+     */
+    public BatchSender(@NotNull String userAgent, @NotNull String url, int maxBatchSize, @NotNull Duration maxDelay) {
+        this(userAgent, url, maxBatchSize, maxDelay, 10000, OverflowPolicy.DROP_NEWEST, null, BatchSender::toArray);
+    }
+
+    /**
+     * Constructs a new {@link BatchSender}, loading the payloads previously spilled to the {@link #spillFile} (if any)
+     *
+     * @param   userAgent       {@link #userAgent}
+     * @param   url             {@link #url}
+     * @param   maxBatchSize    {@link #maxBatchSize}
+     * @param   maxDelay        {@link #maxDelay}
+     * @param   capacity        the maximum amount of queued payloads
+     * @param   overflowPolicy  {@link #overflowPolicy}
+     * @param   spillFile       {@link #spillFile}
+     * @param   combiner        {@link #combiner}
+     */
+    public BatchSender(@NotNull String userAgent, @NotNull String url, int maxBatchSize, @NotNull Duration maxDelay, int capacity, @NotNull OverflowPolicy overflowPolicy, @Nullable Path spillFile, @NotNull Function<List<JsonElement>, JsonElement> combiner) {
+        if (maxBatchSize < 1 || capacity < 1) throw new IllegalArgumentException("Max batch size and capacity must be at least 1");
+        this.userAgent = userAgent;
+        this.url = url;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = spillFile;
+        this.combiner = combiner;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        loadSpilled();
+        this.worker = new Thread(this::run, "HttpUtility-batch-" + SENDER_COUNTER.incrementAndGet());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queues a payload to be sent in the next batch
+     * <br>This never blocks unless the queue is full and the {@link #overflowPolicy} is {@link OverflowPolicy#BLOCK}
+     *
+     * @param   payload the payload to send
+     *
+     * @return          {@code true} if the payload was queued, {@code false} if it was dropped (or the sender is closed)
+     */
+    public boolean send(@NotNull JsonElement payload) {
+        if (closed) return false;
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(payload);
+                    return true;
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                    return false;
+                }
+            case DROP_OLDEST:
+                while (!queue.offer(payload)) if (queue.poll() != null) dropped.incrementAndGet();
+                return true;
+            default:
+                if (queue.offer(payload)) return true;
+                dropped.incrementAndGet();
+                return false;
+        }
+    }
+
+    /**
+     * Gets the amount of queued payloads
+     *
+     * @return  the amount of queued payloads
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the amount of payloads sent successfully
+     *
+     * @return  the amount of payloads sent
+     */
+    public long getSent() {
+        return sent.get();
+    }
+
+    /**
+     * Gets the amount of payloads dropped because the queue was full
+     *
+     * @return  the amount of payloads dropped
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the amount of payloads in batches that failed to send (these are spilled if there's a {@link #spillFile})
+     *
+     * @return  the amount of payloads that failed to send
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Closes the sender, waiting up to 10 seconds for queued payloads to be sent, see {@link #close(Duration)}
+     */
+    @Override
+    public void close() {
+        close(Duration.ofSeconds(10));
+    }
+
+    /**
+     * Closes the sender: new payloads are rejected and the queued ones are sent right away (ignoring {@link #maxDelay})
+     * <br>Payloads still queued after the timeout are spilled to the {@link #spillFile} (or discarded if there is none)
+     *
+     * @param   timeout how long to wait for queued payloads to be sent
+     */
+    public void close(@NotNull Duration timeout) {
+        synchronized (this) {
+            closed = true;
+            // Only interrupt a waiting worker, interrupting a send could abort it
+            if (waiting) worker.interrupt();
+        }
+        try {
+            worker.join(Math.max(1, timeout.toMillis()));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final List<JsonElement> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) spill(remaining);
+    }
+
+    /**
+     * Sends batches until the sender is closed and the queue is empty
+     */
+    private void run() {
+        final List<JsonElement> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                // Wait for the first payload, then for the batch to fill up
+                final JsonElement first = poll(-1);
+                if (first == null) continue;
+                batch.add(first);
+                final long deadline = System.nanoTime() + maxDelay.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    final JsonElement next = poll(Math.max(0, deadline - System.nanoTime()));
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (final InterruptedException e) {
+                // Closed, send what's queued right away
+                if (batch.isEmpty()) continue;
+            }
+            sendBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Takes the next queued payload, without waiting once the sender is closed
+     *
+     * @param   timeoutNanos            how long to wait for a payload, or {@code -1} to wait until one is queued
+     *
+     * @return                          the payload, or {@code null} if none was queued in time
+     *
+     * @throws  InterruptedException    if the sender was closed while waiting
+     */
+    @Nullable
+    private JsonElement poll(long timeoutNanos) throws InterruptedException {
+        synchronized (this) {
+            if (closed) return queue.poll();
+            waiting = true;
+        }
+        try {
+            return timeoutNanos < 0 ? queue.take() : queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            synchronized (this) {
+                waiting = false;
+                // Clear an interrupt that arrived after the payload was taken
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Sends a batch, spilling it if it fails
+     * <br>A {@link RuntimeException} (such as from the {@link #combiner} or an invalid {@link #url}) also fails the batch, so it never stops the {@link #worker}
+     *
+     * @param   batch   the payloads of the batch
+     */
+    private void sendBatch(@NotNull List<JsonElement> batch) {
+        int responseCode;
+        try {
+            responseCode = HttpUtility.postJson(userAgent, url, combiner.apply(batch));
+        } catch (final RuntimeException e) {
+            responseCode = -1;
+        }
+        if (responseCode >= 200 && responseCode < 300) {
+            sent.addAndGet(batch.size());
+            return;
+        }
+        failed.addAndGet(batch.size());
+        spill(batch);
+    }
+
+    /**
+     * Appends payloads to the {@link #spillFile}
+     *
+     * @param   payloads    the payloads to spill
+     */
+    private synchronized void spill(@NotNull List<JsonElement> payloads) {
+        if (spillFile == null) return;
+        try (final BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (final JsonElement payload : payloads) {
+                writer.write(payload.toString());
+                writer.newLine();
+            }
+        } catch (final IOException ignored) {
+            // Nowhere left to put them
+        }
+    }
+
+    /**
+     * Queues the payloads spilled to the {@link #spillFile}, keeping the ones that don't fit in the queue in the file
+     */
+    private synchronized void loadSpilled() {
+        if (spillFile == null || !Files.exists(spillFile)) return;
+        try {
+            final List<String> remaining = new ArrayList<>();
+            final JsonParser parser = new JsonParser();
+            for (final String line : Files.readAllLines(spillFile, StandardCharsets.UTF_8)) {
+                if (line.isEmpty()) continue;
+                try {
+                    if (!remaining.isEmpty() || !queue.offer(parser.parse(line))) remaining.add(line);
+                } catch (final JsonParseException ignored) {
+                    // Corrupted line, skip it
+                }
+            }
+            if (remaining.isEmpty()) {
+                Files.delete(spillFile);
+            } else {
+                Files.write(spillFile, remaining, StandardCharsets.UTF_8);
+            }
+        } catch (final IOException ignored) {
+            // Leave the file for next time
+        }
+    }
+
+    /**
+     * Combines payloads into a {@link JsonArray}
+     *
+     * @param   payloads    the payloads
+     *
+     * @return              the {@link JsonArray} of the payloads
+     */
+    @NotNull
+    private static JsonElement toArray(@NotNull List<JsonElement> payloads) {
+        final JsonArray array = new JsonArray();
+        for (final JsonElement payload : payloads) array.add(payload);
+        return array;
+    }
+
+    /**
+     * What a {@link BatchSender} does with a new payload when its queue is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the new payload
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest queued payload to make room for the new one
+         */
+        DROP_OLDEST,
+        /**
+         * Wait for room in the queue (blocks the caller)
+         */
+        BLOCK
+    }
+}
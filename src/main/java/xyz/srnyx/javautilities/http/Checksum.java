@@ -0,0 +1,108 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import xyz.srnyx.javautilities.parents.Stringable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+
+/**
+ * An expected checksum of a file, used to verify downloads
+ */
+public class Checksum extends Stringable {
+    /**
+     * The {@link MessageDigest} algorithm (for example {@code SHA-256})
+     */
+    @NotNull public final String algorithm;
+    /**
+     * The expected hash, as a lowercase hexadecimal {@link String}
+     */
+    @NotNull public final String hash;
+
+    /**
+     * Constructs a new {@link Checksum}
+     *
+     * @param   algorithm   {@link #algorithm}
+     * @param   hash        {@link #hash} (case-insensitive)
+     */
+    public Checksum(@NotNull String algorithm, @NotNull String hash) {
+        this.algorithm = algorithm;
+        this.hash = hash.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Creates a new SHA-256 {@link Checksum}
+     *
+     * @param   hash    {@link #hash}
+     *
+     * @return          the new {@link Checksum}
+     */
+    @NotNull
+    public static Checksum sha256(@NotNull String hash) {
+        return new Checksum("SHA-256", hash);
+    }
+
+    /**
+     * Creates a new SHA-1 {@link Checksum}
+     *
+     * @param   hash    {@link #hash}
+     *
+     * @return          the new {@link Checksum}
+     */
+    @NotNull
+    public static Checksum sha1(@NotNull String hash) {
+        return new Checksum("SHA-1", hash);
+    }
+
+    /**
+     * Checks whether the specified file matches this checksum
+     *
+     * @param   path        the file to check
+     *
+     * @return              {@code true} if the file's hash is {@link #hash}, otherwise {@code false}
+     *
+     * @throws  IOException if the file couldn't be read
+     */
+    public boolean matches(@NotNull Path path) throws IOException {
+        return hash.equals(hash(path, algorithm));
+    }
+
+    /**
+     * Computes the hash of a file
+     *
+     * @param   path        the file to hash
+     * @param   algorithm   the {@link MessageDigest} algorithm to use
+     *
+     * @return              the hash, as a lowercase hexadecimal {@link String}
+     *
+     * @throws  IOException if the file couldn't be read or the algorithm isn't supported
+     */
+    @NotNull
+    public static String hash(@NotNull Path path, @NotNull String algorithm) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException("Unsupported checksum algorithm: " + algorithm, e);
+        }
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (final byte b : digest.digest()) builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return builder.toString();
+    }
+}
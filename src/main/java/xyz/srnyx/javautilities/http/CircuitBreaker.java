@@ -0,0 +1,209 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * A per-host circuit breaker for {@link HttpUtility} (disabled by default)
+ * <br>After {@link #getFailureThreshold()} consecutive failures (I/O errors or {@code 5xx} responses), the breaker opens and requests to the host fail immediately. After {@link #getOpenDuration()}, one trial request is let through (half-open): if it succeeds the breaker closes, otherwise it opens again
+ */
+public class CircuitBreaker {
+    /**
+     * Whether circuit breakers are used
+     */
+    private static volatile boolean enabled = false;
+    /**
+     * The amount of consecutive failures that opens a breaker
+     */
+    private static volatile int failureThreshold = 5;
+    /**
+     * How long (in milliseconds) a breaker stays open before letting a trial request through
+     */
+    private static volatile long openDurationMillis = 30000;
+    /**
+     * The breakers by host
+     */
+    @NotNull private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    /**
+     * The host of this breaker
+     */
+    @NotNull public final String host;
+    /**
+     * The current {@link State}
+     */
+    @NotNull private State state = State.CLOSED;
+    /**
+     * The amount of consecutive failures
+     */
+    private int failures = 0;
+    /**
+     * When the breaker was last opened (epoch milliseconds)
+     */
+    private long openedAt = 0;
+    /**
+     * Whether the trial request of the half-open state is in flight
+     */
+    private boolean trialInFlight = false;
+
+    /**
+     * Constructs a new {@link CircuitBreaker}
+     *
+     * @param   host    {@link #host}
+     */
+    private CircuitBreaker(@NotNull String host) {
+        this.host = host;
+    }
+
+    /**
+     * Checks whether {@link HttpUtility} uses circuit breakers
+     *
+     * @return  {@code true} if circuit breakers are used, otherwise {@code false}
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether {@link HttpUtility} uses circuit breakers
+     *
+     * @param   enabled whether to use circuit breakers
+     */
+    public static void setEnabled(boolean enabled) {
+        CircuitBreaker.enabled = enabled;
+    }
+
+    /**
+     * Gets the amount of consecutive failures that opens a breaker
+     *
+     * @return  the failure threshold
+     */
+    public static int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Gets how long a breaker stays open before letting a trial request through
+     *
+     * @return  the open duration
+     */
+    @NotNull
+    public static Duration getOpenDuration() {
+        return Duration.ofMillis(openDurationMillis);
+    }
+
+    /**
+     * Configures all breakers
+     *
+     * @param   failureThreshold    the amount of consecutive failures that opens a breaker (default 5)
+     * @param   openDuration        how long a breaker stays open before letting a trial request through (default 30 seconds)
+     */
+    public static void configure(int failureThreshold, @NotNull Duration openDuration) {
+        if (failureThreshold < 1) throw new IllegalArgumentException("Failure threshold must be at least 1");
+        CircuitBreaker.failureThreshold = failureThreshold;
+        CircuitBreaker.openDurationMillis = openDuration.toMillis();
+    }
+
+    /**
+     * Gets the breaker for the specified host, creating it if needed
+     *
+     * @param   host    the host
+     *
+     * @return          the {@link CircuitBreaker} of the host
+     */
+    @NotNull
+    public static CircuitBreaker get(@NotNull String host) {
+        return BREAKERS.computeIfAbsent(host.toLowerCase(Locale.ROOT), CircuitBreaker::new);
+    }
+
+    /**
+     * Closes and forgets all breakers
+     */
+    public static void reset() {
+        BREAKERS.clear();
+    }
+
+    /**
+     * Gets the current {@link State} of this breaker
+     *
+     * @return  the current {@link State}
+     */
+    @NotNull
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMillis) return State.HALF_OPEN;
+        return state;
+    }
+
+    /**
+     * Checks whether a request to the host may be sent, reserving the trial request if the breaker is half-open
+     * <br>Every allowed request must be followed by {@link #recordSuccess()}, {@link #recordFailure()} or {@link #recordAborted()}
+     *
+     * @return  {@code true} if the request may be sent, otherwise {@code false} (it should fail immediately)
+     */
+    public synchronized boolean allowRequest() {
+        switch (getState()) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) return false;
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records a successful request, closing the breaker
+     */
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a failed request, opening the breaker if the trial request failed or there were too many consecutive failures
+     */
+    public synchronized void recordFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a request that was aborted before it completed, which doesn't count as a success or failure
+     */
+    public synchronized void recordAborted() {
+        trialInFlight = false;
+    }
+
+    /**
+     * The states of a {@link CircuitBreaker}
+     */
+    public enum State {
+        /**
+         * Requests are sent normally
+         */
+        CLOSED,
+        /**
+         * Requests fail immediately
+         */
+        OPEN,
+        /**
+         * One trial request is let through to check whether the host has recovered
+         */
+        HALF_OPEN
+    }
+}
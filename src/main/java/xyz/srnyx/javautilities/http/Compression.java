@@ -0,0 +1,120 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+
+/**
+ * Settings and helpers for compressing {@link HttpUtility} requests and responses (disabled by default)
+ */
+public class Compression {
+    /**
+     * Whether responses may be compressed
+     */
+    private static volatile boolean enabled = false;
+    /**
+     * The minimum size (in bytes) of a request body for it to be compressed, or {@code -1} to never compress request bodies
+     */
+    private static volatile int requestThreshold = -1;
+
+    /**
+     * Checks whether {@link HttpUtility} asks for compressed responses ({@code Accept-Encoding: gzip, deflate})
+     *
+     * @return  {@code true} if compressed responses are accepted, otherwise {@code false}
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether {@link HttpUtility} asks for compressed responses ({@code Accept-Encoding: gzip, deflate})
+     * <br>Compressed responses are decoded before being passed to any function, so this is transparent to callers
+     *
+     * @param   enabled whether to accept compressed responses
+     */
+    public static void setEnabled(boolean enabled) {
+        Compression.enabled = enabled;
+    }
+
+    /**
+     * Gets the minimum size (in bytes) of a request body for it to be gzipped
+     *
+     * @return  the minimum size, or {@code -1} if request bodies are never compressed
+     */
+    public static int getRequestThreshold() {
+        return requestThreshold;
+    }
+
+    /**
+     * Sets the minimum size (in bytes) of a request body for it to be gzipped ({@code Content-Encoding: gzip})
+     * <br><b>Only enable this for servers that accept compressed request bodies</b>
+     *
+     * @param   requestThreshold    the minimum size, or {@code -1} to never compress request bodies
+     */
+    public static void setRequestThreshold(int requestThreshold) {
+        Compression.requestThreshold = requestThreshold;
+    }
+
+    /**
+     * Checks whether a request body of the specified size should be compressed
+     *
+     * @param   size    the size of the request body in bytes
+     *
+     * @return          {@code true} if the body should be compressed, otherwise {@code false}
+     */
+    public static boolean shouldCompress(long size) {
+        final int threshold = requestThreshold;
+        return threshold >= 0 && size >= threshold;
+    }
+
+    /**
+     * Wraps a response {@link InputStream} to decode it according to its {@code Content-Encoding}
+     *
+     * @param   stream          the raw response {@link InputStream}
+     * @param   contentEncoding the {@code Content-Encoding} of the response, or {@code null} if there is none
+     *
+     * @return                  the decoded {@link InputStream} (or the same one if it isn't compressed)
+     *
+     * @throws  IOException     if the stream couldn't be read
+     */
+    @NotNull
+    public static InputStream decode(@NotNull InputStream stream, @Nullable String contentEncoding) throws IOException {
+        if (contentEncoding == null) return stream;
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(stream, 8192);
+            case "deflate":
+                // Should be zlib-wrapped, but some servers send raw deflate
+                final PushbackInputStream pushback = new PushbackInputStream(stream, 2);
+                final int first = pushback.read();
+                if (first == -1) return pushback;
+                final int second = pushback.read();
+                if (second != -1) pushback.unread(second);
+                pushback.unread(first);
+                final boolean zlib = second != -1 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+                return new InflaterInputStream(pushback, new Inflater(!zlib), 8192);
+            default:
+                return stream;
+        }
+    }
+
+    /**
+     * Constructs a new {@link Compression} instance (illegal)
+     *
+     * @throws  UnsupportedOperationException   if this class is instantiated
+     */
+    private Compression() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
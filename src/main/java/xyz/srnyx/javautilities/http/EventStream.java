@@ -0,0 +1,426 @@
+package xyz.srnyx.javautilities.http;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * A long-lived streaming response ({@code text/event-stream} or newline-delimited JSON), parsed into events as they arrive
+ * <br>A background thread reads the response into a bounded buffer, and stops reading (leaving the data in the socket, which in turn slows down the server) while the buffer is full. Events are only taken from it when the consumer asks for the next one, so a slow consumer is never flooded
+ * <br>When the connection ends or fails, it's reopened after a delay (the {@code retry} the server sent, or {@link #DEFAULT_RETRY}, doubled after every failed attempt up to {@link #MAX_RETRY}). Server-Sent Events streams resume with the {@code Last-Event-ID} header
+ * <br>Consume it as an {@link Iterator} (for example with {@link #forEachRemaining(java.util.function.Consumer)}) or a {@link #stream() Stream}, and {@link #close() close} it once done
+ *
+ * @param   <T> the type of the events
+ */
+public class EventStream<T> implements Iterator<T>, AutoCloseable {
+    /**
+     * The delay before reconnecting if the server didn't specify one
+     */
+    @NotNull public static final Duration DEFAULT_RETRY = Duration.ofSeconds(3);
+    /**
+     * The longest delay before reconnecting after failed attempts
+     */
+    @NotNull public static final Duration MAX_RETRY = Duration.ofMinutes(1);
+    /**
+     * The default maximum amount of events buffered until the consumer takes them
+     */
+    public static final int DEFAULT_BUFFER = 64;
+    /**
+     * Marks the end of the stream in the {@link #buffer}
+     */
+    @NotNull private static final Object END = new Object();
+    /**
+     * The amount of {@link EventStream EventStreams} created, used to name their threads
+     */
+    @NotNull private static final AtomicInteger STREAM_COUNTER = new AtomicInteger();
+
+    /**
+     * The user agent to use
+     */
+    @NotNull public final String userAgent;
+    /**
+     * The URL of the stream
+     */
+    @NotNull public final String url;
+    /**
+     * The {@code Accept} header of the requests
+     */
+    @NotNull private final String accept;
+    /**
+     * Creates the {@link LineParser} of each connection
+     */
+    @NotNull private final Function<EventStream<T>, LineParser<T>> parser;
+    /**
+     * The received events that weren't taken yet, followed by {@link #END} once the stream ended
+     */
+    @NotNull private final BlockingQueue<Object> buffer = new LinkedBlockingQueue<>();
+    /**
+     * The free space in the {@link #buffer}, which the reading thread waits for before putting an event in it
+     */
+    @NotNull private final Semaphore space;
+    /**
+     * The thread reading the stream
+     */
+    @NotNull private final Thread reader;
+    /**
+     * The {@link HttpCall} of the current connection
+     */
+    @Nullable private volatile HttpCall call;
+    /**
+     * The ID of the last Server-Sent Event, sent as {@code Last-Event-ID} when reconnecting
+     */
+    @Nullable private volatile String lastEventId;
+    /**
+     * The delay before reconnecting, set by the server
+     */
+    @NotNull private volatile Duration retry = DEFAULT_RETRY;
+    /**
+     * Whether an event was received through the current connection
+     */
+    private volatile boolean received = false;
+    /**
+     * Whether the stream was closed
+     */
+    private volatile boolean closed = false;
+    /**
+     * The event taken from the {@link #buffer} by {@link #hasNext()} that wasn't returned by {@link #next()} yet ({@link #END} once the stream ended)
+     */
+    @Nullable private Object next;
+
+    /**
+     * Constructs a new {@link EventStream} and starts reading it
+     *
+     * @param   userAgent   {@link #userAgent}
+     * @param   url         {@link #url}
+     * @param   accept      {@link #accept}
+     * @param   bufferSize  the maximum amount of events buffered until the consumer takes them
+     * @param   parser      {@link #parser}
+     */
+    private EventStream(@NotNull String userAgent, @NotNull String url, @NotNull String accept, int bufferSize, @NotNull Function<EventStream<T>, LineParser<T>> parser) {
+        if (bufferSize < 1) throw new IllegalArgumentException("Buffer size must be at least 1");
+        this.userAgent = userAgent;
+        this.url = url;
+        this.accept = accept;
+        this.parser = parser;
+        this.space = new Semaphore(bufferSize);
+        this.reader = new Thread(this::run, "HttpUtility-events-" + STREAM_COUNTER.incrementAndGet());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Opens a {@code text/event-stream} (Server-Sent Events) response, buffering up to {@link #DEFAULT_BUFFER} events
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL of the event stream
+     *
+     * @return              the new {@link EventStream}
+     */
+    @NotNull
+    public static EventStream<ServerSentEvent> serverSentEvents(@NotNull String userAgent, @NotNull String url) {
+        return serverSentEvents(userAgent, url, DEFAULT_BUFFER);
+    }
+
+    /**
+     * Opens a {@code text/event-stream} (Server-Sent Events) response
+     * <br>Comments are ignored, and events without data aren't returned (but their {@code id} and {@code retry} are still used)
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL of the event stream
+     * @param   bufferSize  the maximum amount of events buffered until the consumer takes them
+     *
+     * @return              the new {@link EventStream}
+     */
+    @NotNull
+    public static EventStream<ServerSentEvent> serverSentEvents(@NotNull String userAgent, @NotNull String url, int bufferSize) {
+        return new EventStream<>(userAgent, url, "text/event-stream", bufferSize, SseParser::new);
+    }
+
+    /**
+     * Opens a newline-delimited JSON ({@code application/x-ndjson}) response, buffering up to {@link #DEFAULT_BUFFER} values
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL of the stream
+     *
+     * @return              the new {@link EventStream}
+     */
+    @NotNull
+    public static EventStream<JsonElement> jsonLines(@NotNull String userAgent, @NotNull String url) {
+        return jsonLines(userAgent, url, DEFAULT_BUFFER);
+    }
+
+    /**
+     * Opens a newline-delimited JSON ({@code application/x-ndjson}) response, one JSON value per line (blank lines are ignored)
+     * <br>A line that isn't valid JSON fails the connection, which is then reopened
+     *
+     * @param   userAgent   the user agent to use
+     * @param   url         the URL of the stream
+     * @param   bufferSize  the maximum amount of values buffered until the consumer takes them
+     *
+     * @return              the new {@link EventStream}
+     */
+    @NotNull
+    public static EventStream<JsonElement> jsonLines(@NotNull String userAgent, @NotNull String url, int bufferSize) {
+        final JsonParser json = new JsonParser();
+        return new EventStream<>(userAgent, url, "application/x-ndjson", bufferSize, stream -> line -> {
+            if (line.trim().isEmpty()) return null;
+            try {
+                return json.parse(line);
+            } catch (final JsonParseException e) {
+                throw new IOException("Invalid JSON line", e);
+            }
+        });
+    }
+
+    /**
+     * Gets the ID of the last Server-Sent Event, which is sent as {@code Last-Event-ID} when reconnecting
+     *
+     * @return  the last event ID, or {@code null} if none was received
+     */
+    @Nullable
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * Waits for the next event
+     *
+     * @return  {@code true} if an event was received, {@code false} if the stream was {@link #close() closed}
+     */
+    @Override
+    public boolean hasNext() {
+        if (closed) return false;
+        if (next == null) try {
+            next = buffer.take();
+            // Let other consumers see the end too
+            if (next == END) buffer.offer(END);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an event", e);
+        }
+        return next != END;
+    }
+
+    /**
+     * Waits for and takes the next event
+     *
+     * @return                          the next event
+     *
+     * @throws  NoSuchElementException  if the stream was {@link #close() closed}
+     */
+    @Override @NotNull @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        final T event = (T) next;
+        next = null;
+        // The event left the buffer, let the reading thread read another one
+        space.release();
+        return event;
+    }
+
+    /**
+     * Gets a sequential {@link Stream} of the events, which {@link #close() closes} this {@link EventStream} when it's closed
+     *
+     * @return  the {@link Stream} of the events
+     */
+    @NotNull
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+    /**
+     * Closes the connection and stops reconnecting, discarding the buffered events
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        buffer.clear();
+        buffer.offer(END);
+        final HttpCall current = call;
+        if (current != null) current.abort();
+        reader.interrupt();
+    }
+
+    /**
+     * Reads the stream, reconnecting until it's closed
+     */
+    private void run() {
+        Duration delay = null;
+        while (!closed) {
+            // Connect
+            final HttpCall current = new HttpCall(-1, Duration.ZERO);
+            call = current;
+            if (closed) break;
+            final Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Accept", accept);
+            headers.put("Accept-Encoding", "identity");
+            headers.put("Cache-Control", "no-cache");
+            final String id = lastEventId;
+            if (id != null) headers.put("Last-Event-ID", id);
+            received = false;
+            HttpUtility.getStream(userAgent, url, headers, this::read, current);
+            if (closed) break;
+
+            // Wait before reconnecting (longer after every attempt without events)
+            delay = received || delay == null ? retry : delay.multipliedBy(2);
+            if (delay.compareTo(MAX_RETRY) > 0) delay = MAX_RETRY;
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (final InterruptedException e) {
+                break;
+            }
+        }
+        buffer.offer(END);
+    }
+
+    /**
+     * Reads a connection's response, putting its events in the {@link #buffer} (waiting while it's full)
+     *
+     * @param   input       the response body
+     *
+     * @return              {@code true} once the response ended
+     *
+     * @throws  IOException if the connection failed or the reading thread was interrupted
+     */
+    private boolean read(@NotNull InputStream input) throws IOException {
+        final LineParser<T> lineParser = parser.apply(this);
+        final BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line = lines.readLine();
+        if (line != null && !line.isEmpty() && line.charAt(0) == '\uFEFF') line = line.substring(1);
+        for (; line != null && !closed; line = lines.readLine()) {
+            final T event = lineParser.parse(line);
+            if (event == null) continue;
+            received = true;
+            try {
+                space.acquire();
+            } catch (final InterruptedException e) {
+                throw new InterruptedIOException("Interrupted while buffering an event");
+            }
+            buffer.add(event);
+        }
+        return true;
+    }
+
+    /**
+     * Parses the lines of one connection into events
+     *
+     * @param   <T> the type of the events
+     */
+    @FunctionalInterface
+    private interface LineParser<T> {
+        /**
+         * Parses a line
+         *
+         * @param   line        the line (without its line ending)
+         *
+         * @return              the event completed by the line, or {@code null} if none was
+         *
+         * @throws  IOException if the line is invalid
+         */
+        @Nullable
+        T parse(@NotNull String line) throws IOException;
+    }
+
+    /**
+     * Parses Server-Sent Events, as specified by the HTML standard
+     */
+    private static class SseParser implements LineParser<ServerSentEvent> {
+        /**
+         * The {@link EventStream} receiving the {@code id} and {@code retry} fields
+         */
+        @NotNull private final EventStream<ServerSentEvent> stream;
+        /**
+         * The data of the current event
+         */
+        @NotNull private final StringBuilder data = new StringBuilder();
+        /**
+         * The type of the current event, or {@code null} for {@code message}
+         */
+        @Nullable private String event;
+        /**
+         * The last {@code id} received, only copied to the {@link EventStream#lastEventId last event ID} of the {@link #stream} once an event is dispatched (so an incomplete event is never acknowledged)
+         */
+        @Nullable private String id;
+
+        /**
+         * Constructs a new {@link SseParser}
+         *
+         * @param   stream  {@link #stream}
+         */
+        private SseParser(@NotNull EventStream<ServerSentEvent> stream) {
+            this.stream = stream;
+            this.id = stream.lastEventId;
+        }
+
+        @Override @Nullable
+        public ServerSentEvent parse(@NotNull String line) {
+            // Blank line, dispatch the event
+            if (line.isEmpty()) {
+                final String type = event;
+                event = null;
+                stream.lastEventId = id;
+                if (data.length() == 0) return null;
+                data.setLength(data.length() - 1);
+                final ServerSentEvent dispatched = new ServerSentEvent(id, type == null || type.isEmpty() ? "message" : type, data.toString());
+                data.setLength(0);
+                return dispatched;
+            }
+            if (line.charAt(0) == ':') return null;
+
+            // Field
+            final int colon = line.indexOf(':');
+            final String field = colon == -1 ? line : line.substring(0, colon);
+            String value = colon == -1 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) value = value.substring(1);
+            switch (field) {
+                case "data":
+                    data.append(value).append('\n');
+                    break;
+                case "event":
+                    event = value;
+                    break;
+                case "id":
+                    if (value.indexOf('\0') == -1) id = value.isEmpty() ? null : value;
+                    break;
+                case "retry":
+                    if (!value.isEmpty() && value.chars().allMatch(character -> character >= '0' && character <= '9')) try {
+                        stream.retry = Duration.ofMillis(Long.parseLong(value));
+                    } catch (final NumberFormatException ignored) {
+                        // Too large
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+import xyz.srnyx.javautilities.parents.Stringable;
+
+import java.nio.file.Path;
+
+
+/**
+ * A part of a {@code multipart/form-data} body, either a text field or a file
+ *
+ * @see HttpUtility#postMultipart(String, String, java.util.List, UploadProgress)
+ */
+public class FormPart extends Stringable {
+    /**
+     * The name of the form field
+     */
+    @NotNull public final String name;
+    /**
+     * The value of the text field, or {@code null} if this is a file
+     */
+    @Nullable public final String value;
+    /**
+     * The file streamed as the part's content, or {@code null} if this is a text field
+     */
+    @Nullable public final Path path;
+    /**
+     * The file name sent to the server, or {@code null} if this is a text field
+     */
+    @Nullable public final String filename;
+    /**
+     * The {@code Content-Type} of the file, or {@code null} if this is a text field
+     */
+    @Nullable public final String contentType;
+
+    /**
+     * Constructs a new {@link FormPart}
+     *
+     * @param   name        {@link #name}
+     * @param   value       {@link #value}
+     * @param   path        {@link #path}
+     * @param   filename    {@link #filename}
+     * @param   contentType {@link #contentType}
+     */
+    private FormPart(@NotNull String name, @Nullable String value, @Nullable Path path, @Nullable String filename, @Nullable String contentType) {
+        this.name = name;
+        this.value = value;
+        this.path = path;
+        this.filename = filename;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Creates a text field {@link FormPart}
+     *
+     * @param   name    {@link #name}
+     * @param   value   {@link #value}
+     *
+     * @return          the new {@link FormPart}
+     */
+    @NotNull
+    public static FormPart field(@NotNull String name, @NotNull String value) {
+        return new FormPart(name, value, null, null, null);
+    }
+
+    /**
+     * Creates a file {@link FormPart}, sent with the name of the file
+     *
+     * @param   name        {@link #name}
+     * @param   path        {@link #path}
+     * @param   contentType {@link #contentType}
+     *
+     * @return              the new {@link FormPart}
+     */
+    @NotNull
+    public static FormPart file(@NotNull String name, @NotNull Path path, @NotNull String contentType) {
+        return file(name, path, String.valueOf(path.getFileName()), contentType);
+    }
+
+    /**
+     * Creates a file {@link FormPart}
+     *
+     * @param   name        {@link #name}
+     * @param   path        {@link #path}
+     * @param   filename    {@link #filename}
+     * @param   contentType {@link #contentType}
+     *
+     * @return              the new {@link FormPart}
+     */
+    @NotNull
+    public static FormPart file(@NotNull String name, @NotNull Path path, @NotNull String filename, @NotNull String contentType) {
+        return new FormPart(name, null, path, filename, contentType);
+    }
+}
@@ -0,0 +1,138 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import xyz.srnyx.javautilities.parents.Stringable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A policy for hedging idempotent GET requests: if no response has arrived after a delay, an identical request is sent and whichever answers first is used
+ *
+ * @see AsyncHttpUtility#get(String, String, java.util.function.Function, HedgingPolicy)
+ */
+public class HedgingPolicy extends Stringable {
+    /**
+     * The amount of latencies kept to compute the 95th percentile
+     */
+    private static final int SAMPLES = 256;
+
+    /**
+     * The delay (in milliseconds) before hedging, or the delay used until enough latencies have been observed if {@link #adaptive}
+     */
+    public final long delayMillis;
+    /**
+     * Whether the delay is the observed 95th percentile latency instead of {@link #delayMillis}
+     */
+    public final boolean adaptive;
+    /**
+     * The maximum fraction of requests that may be hedged (for example {@code 0.05} for 5%)
+     */
+    public final double budget;
+    /**
+     * The amount of requests sent using this policy
+     */
+    @NotNull private final AtomicLong requests = new AtomicLong();
+    /**
+     * The amount of hedged requests sent using this policy
+     */
+    @NotNull private final AtomicLong hedges = new AtomicLong();
+    /**
+     * The most recent latencies (in milliseconds), used as a ring buffer
+     */
+    private final long[] latencies = new long[SAMPLES];
+    /**
+     * The amount of latencies recorded
+     */
+    private long recorded = 0;
+
+    /**
+     * Constructs a new {@link HedgingPolicy}
+     *
+     * @param   delay       {@link #delayMillis}
+     * @param   adaptive    {@link #adaptive}
+     * @param   budget      {@link #budget}
+     */
+    public HedgingPolicy(@NotNull Duration delay, boolean adaptive, double budget) {
+        if (budget < 0 || budget > 1) throw new IllegalArgumentException("Budget must be between 0 and 1");
+        this.delayMillis = delay.toMillis();
+        this.adaptive = adaptive;
+        this.budget = budget;
+    }
+
+    /**
+     * Creates a new {@link HedgingPolicy} that hedges after a fixed delay
+     *
+     * @param   delay   {@link #delayMillis}
+     * @param   budget  {@link #budget}
+     *
+     * @return          the new {@link HedgingPolicy}
+     */
+    @NotNull
+    public static HedgingPolicy fixed(@NotNull Duration delay, double budget) {
+        return new HedgingPolicy(delay, false, budget);
+    }
+
+    /**
+     * Creates a new {@link HedgingPolicy} that hedges after the observed 95th percentile latency
+     *
+     * @param   initialDelay    the delay used until enough latencies have been observed
+     * @param   budget          {@link #budget}
+     *
+     * @return                  the new {@link HedgingPolicy}
+     */
+    @NotNull
+    public static HedgingPolicy adaptive(@NotNull Duration initialDelay, double budget) {
+        return new HedgingPolicy(initialDelay, true, budget);
+    }
+
+    /**
+     * Gets the current delay before hedging
+     *
+     * @return  the delay in milliseconds
+     */
+    public long getDelayMillis() {
+        if (!adaptive) return delayMillis;
+        final long[] copy;
+        synchronized (latencies) {
+            if (recorded < 20) return delayMillis;
+            copy = Arrays.copyOf(latencies, (int) Math.min(recorded, SAMPLES));
+        }
+        Arrays.sort(copy);
+        return copy[(int) Math.ceil(copy.length * 0.95) - 1];
+    }
+
+    /**
+     * Records the start of a request
+     */
+    void recordRequest() {
+        requests.incrementAndGet();
+    }
+
+    /**
+     * Records the latency of a completed request
+     *
+     * @param   latencyMillis   the latency in milliseconds
+     */
+    void recordLatency(long latencyMillis) {
+        synchronized (latencies) {
+            latencies[(int) (recorded++ % SAMPLES)] = latencyMillis;
+        }
+    }
+
+    /**
+     * Reserves a hedge if it fits within the {@link #budget}
+     *
+     * @return  {@code true} if a hedged request may be sent, otherwise {@code false}
+     */
+    boolean tryHedge() {
+        while (true) {
+            final long current = hedges.get();
+            if (current + 1 > budget * requests.get()) return false;
+            if (hedges.compareAndSet(current, current + 1)) return true;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.Nullable;
+
+
+/**
+ * The HTTP/2 {@link HttpTransport}, which needs {@code java.net.http} (Java 11+)
+ * <br>This is the Java 8 version of the class, the multi-release jar replaces it on Java 11+ with one that returns a real transport
+ */
+class Http2Transport {
+    /**
+     * Gets the HTTP/2 {@link HttpTransport}
+     *
+     * @return  always {@code null}, as {@code java.net.http} isn't available
+     */
+    @Nullable
+    static HttpTransport get() {
+        return null;
+    }
+
+    /**
+     * Constructs a new {@link Http2Transport} instance (illegal)
+     *
+     * @throws  UnsupportedOperationException   if this class is instantiated
+     */
+    private Http2Transport() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
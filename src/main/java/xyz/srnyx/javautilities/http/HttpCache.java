@@ -0,0 +1,338 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+import xyz.srnyx.javautilities.parents.Stringable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * A response cache for {@link HttpUtility} GET requests, keyed by URL
+ * <br>Parsed values are kept in memory (least recently used entries are evicted first), and response bodies can optionally also be kept on disk to survive restarts
+ * <br>Once an entry is older than {@link #ttl}, it is revalidated using {@code If-None-Match}/{@code If-Modified-Since}. If the server responds with {@code 304 Not Modified}, the cached value is returned without being parsed again
+ * <br>The same URL should always be requested with the same function, as the cached value is shared
+ *
+ * @see HttpUtility#get(String, String, java.util.function.Function, HttpCache)
+ */
+public class HttpCache {
+    /**
+     * The maximum amount of entries kept in memory
+     */
+    public final int maxEntries;
+    /**
+     * How long an entry is used without being revalidated
+     */
+    @NotNull public final Duration ttl;
+    /**
+     * The directory that response bodies are stored in, or {@code null} to only cache in memory
+     */
+    @Nullable public final Path directory;
+    /**
+     * The maximum amount of entries kept on disk
+     */
+    public final int maxDiskEntries;
+    /**
+     * The in-memory entries, in access order
+     */
+    @NotNull private final Map<String, Entry> entries;
+
+    /**
+     * Constructs a new in-memory {@link HttpCache}
+     *
+     * @param   maxEntries  {@link #maxEntries}
+     * @param   ttl         {@link #ttl}
+     */
+    public HttpCache(int maxEntries, @NotNull Duration ttl) {
+        this(maxEntries, ttl, null, 0);
+    }
+
+    /**
+     * Constructs a new {@link HttpCache}
+     *
+     * @param   maxEntries      {@link #maxEntries}
+     * @param   ttl             {@link #ttl}
+     * @param   directory       {@link #directory}
+     * @param   maxDiskEntries  {@link #maxDiskEntries}
+     */
+    public HttpCache(int maxEntries, @NotNull Duration ttl, @Nullable Path directory, int maxDiskEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("Max entries must be at least 1");
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.directory = directory;
+        this.maxDiskEntries = maxDiskEntries;
+        this.entries = new LruMap(maxEntries);
+    }
+
+    /**
+     * Gets the entry for the specified URL, from memory or (if not in memory) from disk
+     *
+     * @param   url the URL of the entry
+     *
+     * @return      the {@link Entry}, or {@code null} if the URL isn't cached
+     */
+    @Nullable
+    public Entry getEntry(@NotNull String url) {
+        synchronized (entries) {
+            final Entry entry = entries.get(url);
+            if (entry != null) return entry;
+        }
+        if (directory == null) return null;
+
+        // Disk
+        final Path meta = directory.resolve(fileName(url) + ".properties");
+        if (!Files.exists(meta)) return null;
+        final Properties properties = new Properties();
+        try (final InputStream input = Files.newInputStream(meta)) {
+            properties.load(input);
+            Files.setLastModifiedTime(meta, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (final IOException e) {
+            return null;
+        }
+        if (!url.equals(properties.getProperty("url"))) return null;
+        return new Entry(properties.getProperty("etag"), properties.getProperty("lastModified"), Long.parseLong(properties.getProperty("expiresAt", "0")), null);
+    }
+
+    /**
+     * Stores an entry in memory (and its metadata on disk, if there is a {@link #directory})
+     *
+     * @param   url     the URL of the entry
+     * @param   entry   the {@link Entry} to store
+     */
+    public void putEntry(@NotNull String url, @NotNull Entry entry) {
+        synchronized (entries) {
+            entries.put(url, entry);
+        }
+        if (directory == null) return;
+        final Properties properties = new Properties();
+        properties.setProperty("url", url);
+        if (entry.etag != null) properties.setProperty("etag", entry.etag);
+        if (entry.lastModified != null) properties.setProperty("lastModified", entry.lastModified);
+        properties.setProperty("expiresAt", String.valueOf(entry.expiresAt));
+        try {
+            Files.createDirectories(directory);
+            final Path meta = directory.resolve(fileName(url) + ".properties");
+            final Path temp = directory.resolve(fileName(url) + ".properties.tmp");
+            try (final OutputStream output = Files.newOutputStream(temp)) {
+                properties.store(output, null);
+            }
+            Files.move(temp, meta, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException ignored) {
+            // Disk tier is best-effort
+        }
+    }
+
+    /**
+     * Gets the response body stored on disk for the specified URL
+     *
+     * @param   url the URL of the entry
+     *
+     * @return      the body file, or {@code null} if there is no {@link #directory} or no body stored
+     */
+    @Nullable
+    public Path getBody(@NotNull String url) {
+        if (directory == null) return null;
+        final Path body = directory.resolve(fileName(url) + ".body");
+        return Files.exists(body) ? body : null;
+    }
+
+    /**
+     * Stores the response body for the specified URL on disk, evicting the least recently used bodies if there are more than {@link #maxDiskEntries}
+     * <br>Does nothing if there is no {@link #directory}
+     *
+     * @param   url     the URL of the entry
+     * @param   body    the response body
+     */
+    public void putBody(@NotNull String url, byte[] body) {
+        if (directory == null) return;
+        try {
+            Files.createDirectories(directory);
+            final Path temp = directory.resolve(fileName(url) + ".body.tmp");
+            Files.write(temp, body);
+            Files.move(temp, directory.resolve(fileName(url) + ".body"), StandardCopyOption.REPLACE_EXISTING);
+            evictDisk();
+        } catch (final IOException ignored) {
+            // Disk tier is best-effort
+        }
+    }
+
+    /**
+     * Removes the entry for the specified URL from memory and disk
+     *
+     * @param   url the URL of the entry
+     */
+    public void remove(@NotNull String url) {
+        synchronized (entries) {
+            entries.remove(url);
+        }
+        if (directory == null) return;
+        final String name = fileName(url);
+        try {
+            Files.deleteIfExists(directory.resolve(name + ".properties"));
+            Files.deleteIfExists(directory.resolve(name + ".body"));
+        } catch (final IOException ignored) {
+            // Disk tier is best-effort
+        }
+    }
+
+    /**
+     * Removes all entries from memory (disk entries are kept)
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Evicts the least recently used disk entries until there are at most {@link #maxDiskEntries}
+     *
+     * @throws  IOException if the {@link #directory} couldn't be listed
+     */
+    private void evictDisk() throws IOException {
+        if (directory == null) return;
+        final List<Path> metas;
+        try (final Stream<Path> stream = Files.list(directory)) {
+            metas = stream
+                    .filter(path -> path.getFileName().toString().endsWith(".properties"))
+                    .sorted(Comparator.comparing(path -> {
+                        try {
+                            return Files.getLastModifiedTime(path);
+                        } catch (final IOException e) {
+                            return FileTime.fromMillis(0);
+                        }
+                    }))
+                    .collect(Collectors.toList());
+        }
+        for (int i = 0; i < metas.size() - maxDiskEntries; i++) {
+            final Path meta = metas.get(i);
+            final String name = meta.getFileName().toString();
+            Files.deleteIfExists(meta);
+            Files.deleteIfExists(meta.resolveSibling(name.substring(0, name.length() - ".properties".length()) + ".body"));
+        }
+    }
+
+    /**
+     * Gets the file name (without extension) used to store the specified URL on disk
+     *
+     * @param   url the URL
+     *
+     * @return      the SHA-1 hash of the URL
+     */
+    @NotNull
+    private static String fileName(@NotNull String url) {
+        final byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-1").digest(url.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (final byte b : hash) builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return builder.toString();
+    }
+
+    /**
+     * A cached response
+     */
+    public static class Entry extends Stringable {
+        /**
+         * The {@code ETag} of the response
+         */
+        @Nullable public final String etag;
+        /**
+         * The {@code Last-Modified} of the response
+         */
+        @Nullable public final String lastModified;
+        /**
+         * When the entry must be revalidated (epoch milliseconds)
+         */
+        public final long expiresAt;
+        /**
+         * The parsed value, or {@code null} if the entry was loaded from disk and hasn't been parsed yet
+         */
+        @Nullable public final Object value;
+
+        /**
+         * Constructs a new {@link Entry}
+         *
+         * @param   etag            {@link #etag}
+         * @param   lastModified    {@link #lastModified}
+         * @param   expiresAt       {@link #expiresAt}
+         * @param   value           {@link #value}
+         */
+        public Entry(@Nullable String etag, @Nullable String lastModified, long expiresAt, @Nullable Object value) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+            this.value = value;
+        }
+
+        /**
+         * Checks whether the entry must be revalidated
+         *
+         * @return  {@code true} if the entry is expired, otherwise {@code false}
+         */
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+
+        /**
+         * Checks whether the entry can be revalidated (it has an {@link #etag} or {@link #lastModified})
+         *
+         * @return  {@code true} if the entry can be revalidated, otherwise {@code false}
+         */
+        public boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+    }
+
+    /**
+     * A {@link LinkedHashMap} in access order, evicting its least recently accessed entry once it's full
+     */
+    private static class LruMap extends LinkedHashMap<String, HttpCache.Entry> {
+        /**
+         * The serialization version of {@link LruMap}
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The maximum amount of entries
+         */
+        private final int maxEntries;
+
+        /**
+         * Constructs a new {@link LruMap}
+         *
+         * @param   maxEntries  {@link #maxEntries}
+         */
+        private LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<String, HttpCache.Entry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A handle to an in-flight request, allowing it to be aborted from another thread
+ * <br>Aborting closes the underlying connection, so a blocked request fails immediately instead of waiting for its response
+ * <br>A call can also override the global {@link HttpLimits}, in which case it's aborted automatically when a limit is exceeded
+ */
+public class HttpCall {
+    /**
+     * The {@link #maxBodyBytes} value meaning the global {@link HttpLimits#getMaxBodyBytes()} is used
+     */
+    public static final long DEFAULT_LIMIT = -2;
+
+    /**
+     * The maximum amount of response body bytes, {@code -1} for no limit, or {@link #DEFAULT_LIMIT} to use {@link HttpLimits#getMaxBodyBytes()}
+     */
+    public final long maxBodyBytes;
+    /**
+     * The maximum total time of the request, {@link Duration#ZERO} for no limit, or {@code null} to use {@link HttpLimits#getTimeout()}
+     */
+    @Nullable public final Duration timeout;
+    /**
+     * The action that aborts the request, or {@code null} if the request hasn't been started yet
+     */
+    @Nullable private Runnable abortAction;
+    /**
+     * Whether {@link #abort()} has been called
+     */
+    private boolean aborted = false;
+    /**
+     * The limit that was exceeded, or {@code null} if none was
+     */
+    @Nullable private HttpLimitException limitExceeded;
+    /**
+     * The scheduled timeout, or {@code null} if none is running
+     */
+    @Nullable private ScheduledFuture<?> timeoutTask;
+
+    /**
+     * Creates a new {@link HttpCall} using the global {@link HttpLimits}
+     */
+    public HttpCall() {
+        this(DEFAULT_LIMIT, null);
+    }
+
+    /**
+     * Creates a new {@link HttpCall} with its own limits
+     *
+     * @param   maxBodyBytes    {@link #maxBodyBytes}
+     * @param   timeout         {@link #timeout}
+     */
+    public HttpCall(long maxBodyBytes, @Nullable Duration timeout) {
+        if (maxBodyBytes < DEFAULT_LIMIT) throw new IllegalArgumentException("Max body bytes must be at least 0, -1 for no limit, or DEFAULT_LIMIT");
+        if (timeout != null && timeout.isNegative()) throw new IllegalArgumentException("Timeout must not be negative");
+        this.maxBodyBytes = maxBodyBytes;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sets the action that aborts the request (called by the code making the request once it has been started)
+     * <br>If the call was already aborted, the action is run immediately
+     *
+     * @param   abortAction the action that aborts the request
+     */
+    public void onAbort(@NotNull Runnable abortAction) {
+        synchronized (this) {
+            if (!aborted) {
+                this.abortAction = abortAction;
+                return;
+            }
+        }
+        abortAction.run();
+    }
+
+    /**
+     * Aborts the request. If it hasn't been started yet, it won't be sent at all
+     */
+    public void abort() {
+        final Runnable action;
+        synchronized (this) {
+            if (aborted) return;
+            aborted = true;
+            action = abortAction;
+            abortAction = null;
+        }
+        if (action != null) action.run();
+    }
+
+    /**
+     * Checks whether {@link #abort()} has been called
+     *
+     * @return  {@code true} if the call was aborted, otherwise {@code false}
+     */
+    public synchronized boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Gets the limit the request exceeded (which aborted it)
+     *
+     * @return  the {@link HttpLimitException} describing the exceeded limit, or {@code null} if no limit was exceeded
+     */
+    @Nullable
+    public synchronized HttpLimitException getLimitExceeded() {
+        return limitExceeded;
+    }
+
+    /**
+     * Records that the request exceeded a limit and aborts it (called by the code making the request)
+     *
+     * @param   exception   the {@link HttpLimitException} describing the exceeded limit
+     */
+    public void limitExceeded(@NotNull HttpLimitException exception) {
+        synchronized (this) {
+            if (limitExceeded == null && !aborted) limitExceeded = exception;
+        }
+        abort();
+    }
+
+    /**
+     * Starts the timeout of the request, after which it's aborted with an {@link HttpLimitException} (called by the code making the request)
+     *
+     * @param   timeout the timeout
+     */
+    public synchronized void startTimeout(@NotNull Duration timeout) {
+        if (timeoutTask != null || aborted) return;
+        final long millis = timeout.toMillis();
+        timeoutTask = AsyncHttpUtility.scheduler().schedule(() -> limitExceeded(new HttpLimitException("Request exceeded its timeout of " + millis + "ms")), millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels the timeout once the request has finished (called by the code making the request)
+     */
+    public synchronized void finish() {
+        if (timeoutTask == null) return;
+        timeoutTask.cancel(false);
+        timeoutTask = null;
+    }
+}
@@ -0,0 +1,89 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.parents.Stringable;
+
+
+/**
+ * The timings and outcome of one {@link xyz.srnyx.javautilities.HttpUtility HttpUtility} request attempt
+ *
+ * @see HttpListener
+ */
+public class HttpEvent extends Stringable {
+    /**
+     * The request method
+     */
+    @NotNull public final String method;
+    /**
+     * The requested URL
+     */
+    @NotNull public final String url;
+    /**
+     * The lowercase host of the {@link #url}
+     */
+    @NotNull public final String host;
+    /**
+     * The attempt number (0 for the first attempt, higher for retries)
+     */
+    public final int attempt;
+    /**
+     * The time (in nanoseconds) spent resolving the host and connecting (including the TLS handshake), or {@code -1} if the connection failed
+     * <br>This is close to 0 when a {@link KeepAlive kept-alive} connection is reused, and for the {@link HttpTransport#http2() HTTP/2 transport} (which connects in the background, so its connect time is part of {@link #firstByteNanos})
+     */
+    public final long connectNanos;
+    /**
+     * The time (in nanoseconds) from the start of the request until the response code was received, or {@code -1} if there was no response
+     */
+    public final long firstByteNanos;
+    /**
+     * The total time (in nanoseconds) of the request, including reading the response
+     */
+    public final long totalNanos;
+    /**
+     * The amount of request body bytes sent
+     */
+    public final long requestBytes;
+    /**
+     * The amount of response body bytes read (before decompression)
+     */
+    public final long responseBytes;
+    /**
+     * The response code, or {@code -1} if there was no response
+     */
+    public final int responseCode;
+    /**
+     * The exception that made the request fail, or {@code null} if it didn't throw
+     */
+    @Nullable public final Exception exception;
+
+    /**
+     * Constructs a new {@link HttpEvent}
+     *
+     * @param   method          {@link #method}
+     * @param   url             {@link #url}
+     * @param   host            {@link #host}
+     * @param   attempt         {@link #attempt}
+     * @param   connectNanos    {@link #connectNanos}
+     * @param   firstByteNanos  {@link #firstByteNanos}
+     * @param   totalNanos      {@link #totalNanos}
+     * @param   requestBytes    {@link #requestBytes}
+     * @param   responseBytes   {@link #responseBytes}
+     * @param   responseCode    {@link #responseCode}
+     * @param   exception       {@link #exception}
+     */
+    public HttpEvent(@NotNull String method, @NotNull String url, @NotNull String host, int attempt, long connectNanos, long firstByteNanos, long totalNanos, long requestBytes, long responseBytes, int responseCode, @Nullable Exception exception) {
+        this.method = method;
+        this.url = url;
+        this.host = host;
+        this.attempt = attempt;
+        this.connectNanos = connectNanos;
+        this.firstByteNanos = firstByteNanos;
+        this.totalNanos = totalNanos;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.responseCode = responseCode;
+        this.exception = exception;
+    }
+}
@@ -0,0 +1,27 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+
+/**
+ * Thrown when a request exceeds its {@link HttpLimits limits} (response body size or total time), after which it's aborted
+ *
+ * @see HttpCall#getLimitExceeded()
+ */
+public class HttpLimitException extends IOException {
+    /**
+     * The serialization version of {@link HttpLimitException}
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new {@link HttpLimitException}
+     *
+     * @param   message the message describing the exceeded limit
+     */
+    public HttpLimitException(@NotNull String message) {
+        super(message);
+    }
+}
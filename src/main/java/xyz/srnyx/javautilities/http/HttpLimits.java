@@ -0,0 +1,97 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.time.Duration;
+
+
+/**
+ * Global limits for {@link HttpUtility} requests (none by default), which can be overridden per call using an {@link HttpCall}
+ * <br>A request exceeding a limit is aborted right away (closing its connection) and fails with an {@link HttpLimitException}
+ * <br>Downloads ({@link HttpUtility#download(String, String, java.nio.file.Path)}) aren't limited, as their body is written to disk
+ */
+public class HttpLimits {
+    /**
+     * The maximum amount of response body bytes, or {@code -1} for no limit
+     */
+    private static volatile long maxBodyBytes = -1;
+    /**
+     * The maximum total time of a request (including retries), or {@code null} for no limit
+     */
+    @Nullable private static volatile Duration timeout;
+
+    /**
+     * Gets the maximum amount of response body bytes read for a request
+     *
+     * @return  the maximum amount of bytes, or {@code -1} if there is no limit
+     */
+    public static long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    /**
+     * Sets the maximum amount of response body bytes read for a request (after decompression). Responses with a larger {@code Content-Length} fail without being read
+     *
+     * @param   maxBodyBytes    the maximum amount of bytes, or {@code -1} for no limit
+     */
+    public static void setMaxBodyBytes(long maxBodyBytes) {
+        if (maxBodyBytes < -1) throw new IllegalArgumentException("Max body bytes must be at least 0, or -1 for no limit");
+        HttpLimits.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * Gets the maximum total time of a request
+     *
+     * @return  the timeout, or {@code null} if there is no limit
+     */
+    @Nullable
+    public static Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the maximum total time of a request, from its first attempt until its response has been handled (including retries and reading the body)
+     *
+     * @param   timeout the timeout, or {@code null} for no limit
+     */
+    public static void setTimeout(@Nullable Duration timeout) {
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) throw new IllegalArgumentException("Timeout must be positive, or null for no limit");
+        HttpLimits.timeout = timeout;
+    }
+
+    /**
+     * Gets the response body limit of a request
+     *
+     * @param   call    the {@link HttpCall} of the request, or {@code null}
+     *
+     * @return          the limit of the {@link HttpCall} if it has one, otherwise the global one ({@code -1} for no limit)
+     */
+    public static long getMaxBodyBytes(@Nullable HttpCall call) {
+        return call != null && call.maxBodyBytes != HttpCall.DEFAULT_LIMIT ? call.maxBodyBytes : maxBodyBytes;
+    }
+
+    /**
+     * Gets the timeout of a request
+     *
+     * @param   call    the {@link HttpCall} of the request, or {@code null}
+     *
+     * @return          the timeout of the {@link HttpCall} if it has one, otherwise the global one ({@code null} for no limit)
+     */
+    @Nullable
+    public static Duration getTimeout(@Nullable HttpCall call) {
+        if (call == null || call.timeout == null) return timeout;
+        return call.timeout.isZero() ? null : call.timeout;
+    }
+
+    /**
+     * Constructs a new {@link HttpLimits} instance (illegal)
+     *
+     * @throws  UnsupportedOperationException   if this class is instantiated
+     */
+    private HttpLimits() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,18 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * A listener notified after every {@link xyz.srnyx.javautilities.HttpUtility HttpUtility} request attempt, registered using {@link HttpMetrics#addListener(HttpListener)}
+ * <br>Listeners are called on the thread that made the request, so they should return quickly
+ */
+@FunctionalInterface
+public interface HttpListener {
+    /**
+     * Called after a request attempt has finished (successfully or not)
+     *
+     * @param   event   the {@link HttpEvent} describing the attempt
+     */
+    void onRequest(@NotNull HttpEvent event);
+}
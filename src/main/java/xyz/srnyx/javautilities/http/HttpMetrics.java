@@ -0,0 +1,122 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * Instrumentation for {@link HttpUtility}: {@link HttpListener listeners} and per-host {@link LatencyHistogram latency histograms} (disabled by default)
+ */
+public class HttpMetrics {
+    /**
+     * Whether requests are instrumented
+     */
+    private static volatile boolean enabled = false;
+    /**
+     * The registered {@link HttpListener listeners}
+     */
+    @NotNull private static final List<HttpListener> LISTENERS = new CopyOnWriteArrayList<>();
+    /**
+     * The total latency histograms by host
+     */
+    @NotNull private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    /**
+     * Checks whether {@link HttpUtility} requests are instrumented
+     *
+     * @return  {@code true} if requests are instrumented, otherwise {@code false}
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether {@link HttpUtility} requests are instrumented
+     *
+     * @param   enabled whether to instrument requests
+     */
+    public static void setEnabled(boolean enabled) {
+        HttpMetrics.enabled = enabled;
+    }
+
+    /**
+     * Registers a {@link HttpListener}
+     *
+     * @param   listener    the {@link HttpListener} to register
+     */
+    public static void addListener(@NotNull HttpListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Unregisters a {@link HttpListener}
+     *
+     * @param   listener    the {@link HttpListener} to unregister
+     */
+    public static void removeListener(@NotNull HttpListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Records a {@link HttpEvent}, adding it to the host's histogram and passing it to all listeners
+     * <br>Exceptions thrown by listeners are ignored
+     *
+     * @param   event   the {@link HttpEvent} to record
+     */
+    public static void record(@NotNull HttpEvent event) {
+        HISTOGRAMS.computeIfAbsent(event.host, host -> new LatencyHistogram()).record(event.totalNanos);
+        for (final HttpListener listener : LISTENERS) try {
+            listener.onRequest(event);
+        } catch (final RuntimeException ignored) {
+            // Listeners must not break requests
+        }
+    }
+
+    /**
+     * Gets the total latency histogram of a host
+     *
+     * @param   host    the host
+     *
+     * @return          the {@link LatencyHistogram}, or {@code null} if no request to the host has been recorded
+     */
+    @Nullable
+    public static LatencyHistogram getHistogram(@NotNull String host) {
+        return HISTOGRAMS.get(host);
+    }
+
+    /**
+     * Takes a snapshot of the total latency histograms of all hosts
+     *
+     * @return  the {@link LatencyHistogram.Snapshot snapshots} by host
+     */
+    @NotNull
+    public static Map<String, LatencyHistogram.Snapshot> snapshot() {
+        final Map<String, LatencyHistogram.Snapshot> snapshots = new HashMap<>();
+        HISTOGRAMS.forEach((host, histogram) -> snapshots.put(host, histogram.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Forgets all recorded latencies
+     */
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    /**
+     * Constructs a new {@link HttpMetrics} instance (illegal)
+     *
+     * @throws  UnsupportedOperationException   if this class is instantiated
+     */
+    private HttpMetrics() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,152 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+
+/**
+ * The transport {@link HttpUtility} sends its requests with
+ * <br>Two transports are included:
+ * <ul>
+ *     <li>{@link #urlConnection()}: {@link java.net.HttpURLConnection HttpURLConnection} (HTTP/1.1, one request per connection at a time), respecting {@link KeepAlive}</li>
+ *     <li>{@link #http2()}: {@code java.net.http.HttpClient} (HTTP/2 when the server supports it, multiplexing concurrent requests over one connection per host), only available on Java 11+</li>
+ * </ul>
+ * The default is the HTTP/2 transport when it's available, otherwise the {@link java.net.HttpURLConnection HttpURLConnection} one
+ */
+public abstract class HttpTransport {
+    /**
+     * The body length passed to {@link #open(String, String, Map, long)} for requests without a body
+     */
+    public static final long NO_BODY = -2;
+    /**
+     * The body length passed to {@link #open(String, String, Map, long)} for bodies of unknown length (sent chunked)
+     */
+    public static final long UNKNOWN_LENGTH = -1;
+
+    /**
+     * The transport used by {@link HttpUtility}, lazily picked by {@link #getDefault()}
+     */
+    @Nullable private static volatile HttpTransport defaultTransport;
+
+    /**
+     * Gets the transport used by {@link HttpUtility}
+     *
+     * @return  the default {@link HttpTransport}
+     */
+    @NotNull
+    public static HttpTransport getDefault() {
+        HttpTransport transport = defaultTransport;
+        if (transport == null) {
+            transport = http2();
+            if (transport == null) transport = urlConnection();
+            defaultTransport = transport;
+        }
+        return transport;
+    }
+
+    /**
+     * Sets the transport used by {@link HttpUtility}
+     *
+     * @param   transport   the new default {@link HttpTransport}
+     */
+    public static void setDefault(@NotNull HttpTransport transport) {
+        defaultTransport = transport;
+    }
+
+    /**
+     * Gets the {@link java.net.HttpURLConnection HttpURLConnection} transport
+     *
+     * @return  the {@link java.net.HttpURLConnection HttpURLConnection} {@link HttpTransport}
+     */
+    @NotNull
+    public static HttpTransport urlConnection() {
+        return UrlConnectionTransport.INSTANCE;
+    }
+
+    /**
+     * Gets the {@code java.net.http.HttpClient} transport, which negotiates HTTP/2 and multiplexes concurrent requests to the same host over a single connection
+     * <br>{@link KeepAlive} settings don't apply to it, the client manages its own connections
+     *
+     * @return  the HTTP/2 {@link HttpTransport}, or {@code null} if running on Java 8-10
+     */
+    @Nullable
+    public static HttpTransport http2() {
+        return Http2Transport.get();
+    }
+
+    /**
+     * Sends a request (its body, if any, is written to {@link Exchange#getOutputStream()} afterwards)
+     *
+     * @param   method      the request method
+     * @param   url         the URL to send the request to
+     * @param   headers     the request headers
+     * @param   bodyLength  the length of the request body, {@link #UNKNOWN_LENGTH} if it's unknown, or {@link #NO_BODY} if there is none
+     *
+     * @return              the {@link Exchange} of the request
+     *
+     * @throws  IOException if the request couldn't be sent
+     */
+    @NotNull
+    public abstract Exchange open(@NotNull String method, @NotNull String url, @NotNull Map<String, String> headers, long bodyLength) throws IOException;
+
+    /**
+     * A single request and its response
+     */
+    public interface Exchange {
+        /**
+         * Gets the stream to write the request body to, which must be closed once the body is written
+         *
+         * @return              the request body {@link OutputStream}
+         *
+         * @throws  IOException if the request has no body or it can't be written
+         */
+        @NotNull
+        OutputStream getOutputStream() throws IOException;
+
+        /**
+         * Waits for the response and gets its code
+         *
+         * @return              the response code
+         *
+         * @throws  IOException if no response was received
+         */
+        int getResponseCode() throws IOException;
+
+        /**
+         * Gets a response header
+         *
+         * @param   name    the name of the header (case-insensitive)
+         *
+         * @return          the value of the header, or {@code null} if it's missing (or there's no response yet)
+         */
+        @Nullable
+        String getHeader(@NotNull String name);
+
+        /**
+         * Gets the raw (still encoded) response body
+         *
+         * @return              the response body {@link InputStream}
+         *
+         * @throws  IOException if the response is an error ({@code 4xx}/{@code 5xx}) or the body couldn't be opened
+         */
+        @NotNull
+        InputStream getInputStream() throws IOException;
+
+        /**
+         * Aborts the exchange, making blocked calls on it fail (may be called from any thread)
+         */
+        void abort();
+
+        /**
+         * Releases the exchange once its response has been handled, so its connection can be reused if possible
+         */
+        void release();
+    }
+}
@@ -0,0 +1,21 @@
+package xyz.srnyx.javautilities.http;
+
+import java.io.IOException;
+
+
+/**
+ * A {@link java.util.function.Consumer} that can throw an {@link IOException}
+ *
+ * @param   <T> the type of the input
+ */
+@FunctionalInterface
+public interface IOConsumer<T> {
+    /**
+     * Performs this operation on the specified input
+     *
+     * @param   input       the input
+     *
+     * @throws  IOException if an I/O error occurs
+     */
+    void accept(T input) throws IOException;
+}
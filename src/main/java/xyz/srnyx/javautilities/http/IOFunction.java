@@ -0,0 +1,24 @@
+package xyz.srnyx.javautilities.http;
+
+import java.io.IOException;
+
+
+/**
+ * A {@link java.util.function.Function} that can throw an {@link IOException}
+ *
+ * @param   <T> the type of the input
+ * @param   <R> the type of the result
+ */
+@FunctionalInterface
+public interface IOFunction<T, R> {
+    /**
+     * Applies this function to the specified input
+     *
+     * @param   input       the input
+     *
+     * @return              the result
+     *
+     * @throws  IOException if an I/O error occurs
+     */
+    R apply(T input) throws IOException;
+}
@@ -0,0 +1,106 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Settings for reusing connections made by {@link HttpUtility} through the JDK's keep-alive cache
+ * <br>When enabled, responses are fully read and their streams closed instead of calling {@link java.net.HttpURLConnection#disconnect()}, so the socket stays pooled for the next request to the same host
+ * <br>These settings only apply to the {@link HttpTransport#urlConnection() HttpURLConnection transport}, the {@link HttpTransport#http2() HTTP/2 transport} always reuses its connections
+ */
+public class KeepAlive {
+    /**
+     * Whether keep-alive is enabled
+     */
+    private static volatile boolean enabled = false;
+    /**
+     * The maximum amount of idle connections for specific hosts
+     */
+    @NotNull private static final Map<String, Integer> HOST_MAX_IDLE = new ConcurrentHashMap<>();
+
+    /**
+     * Checks whether {@link HttpUtility} keeps connections alive after a request
+     *
+     * @return  {@code true} if connections are kept alive, otherwise {@code false}
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether {@link HttpUtility} keeps connections alive after a request (disabled by default)
+     *
+     * @param   enabled whether to keep connections alive
+     */
+    public static void setEnabled(boolean enabled) {
+        KeepAlive.enabled = enabled;
+    }
+
+    /**
+     * Sets the maximum amount of idle connections kept per host by the JDK ({@code http.maxConnections}, default 5)
+     * <br><b>The JDK only reads this once, so it must be called before the first request is made</b>
+     *
+     * @param   maxIdle the maximum amount of idle connections per host
+     */
+    public static void setMaxIdle(int maxIdle) {
+        if (maxIdle < 1) throw new IllegalArgumentException("Max idle must be at least 1");
+        System.setProperty("http.maxConnections", String.valueOf(maxIdle));
+    }
+
+    /**
+     * Sets how long idle connections are kept when the server doesn't send a {@code Keep-Alive} timeout ({@code http.keepAlive.time.server} and {@code http.keepAlive.time.proxy})
+     * <br>Only honored on Java 20+, older versions always use 5 seconds
+     *
+     * @param   idleTimeout the idle timeout (rounded down to seconds)
+     */
+    public static void setIdleTimeout(@NotNull Duration idleTimeout) {
+        final String seconds = String.valueOf(idleTimeout.getSeconds());
+        System.setProperty("http.keepAlive.time.server", seconds);
+        System.setProperty("http.keepAlive.time.proxy", seconds);
+    }
+
+    /**
+     * Sets the maximum amount of idle connections kept for a specific host, which can only be lower than {@link #setMaxIdle(int)}
+     * <br>Use {@code 0} to never keep connections to the host alive
+     *
+     * @param   host    the host (for example {@code api.github.com})
+     * @param   maxIdle the maximum amount of idle connections, or {@code null} to remove the limit
+     */
+    public static void setMaxIdle(@NotNull String host, @Nullable Integer maxIdle) {
+        if (maxIdle == null) {
+            HOST_MAX_IDLE.remove(host.toLowerCase(Locale.ROOT));
+            return;
+        }
+        if (maxIdle < 0) throw new IllegalArgumentException("Max idle must be at least 0");
+        HOST_MAX_IDLE.put(host.toLowerCase(Locale.ROOT), maxIdle);
+    }
+
+    /**
+     * Gets the maximum amount of idle connections kept for a specific host
+     *
+     * @param   host    the host
+     *
+     * @return          the maximum amount of idle connections, or {@code null} if there is no host-specific limit
+     */
+    @Nullable
+    public static Integer getMaxIdle(@NotNull String host) {
+        return HOST_MAX_IDLE.get(host.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Constructs a new {@link KeepAlive} instance (illegal)
+     *
+     * @throws  UnsupportedOperationException   if this class is instantiated
+     */
+    private KeepAlive() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,168 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import xyz.srnyx.javautilities.parents.Stringable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A lock-free histogram of latencies, with buckets that are at most 25% wide (4 sub-buckets per power of 2 microseconds)
+ */
+public class LatencyHistogram {
+    /**
+     * The amount of bits used for sub-buckets
+     */
+    private static final int SUB_BITS = 2;
+    /**
+     * The amount of sub-buckets per power of 2
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * The amount of latencies per bucket
+     */
+    @NotNull private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+    /**
+     * The sum of all latencies (in microseconds)
+     */
+    @NotNull private final LongAdder sum = new LongAdder();
+    /**
+     * The highest latency (in microseconds)
+     */
+    @NotNull private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructs a new empty {@link LatencyHistogram}
+     */
+    public LatencyHistogram() {
+        // Only exists to give the constructor a Javadoc
+    }
+
+    /**
+     * Records a latency
+     *
+     * @param   nanos   the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        final long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        buckets.incrementAndGet(index(micros));
+        sum.add(micros);
+        long current;
+        while (micros > (current = max.get()) && !max.compareAndSet(current, micros)) {
+            // Retry
+        }
+    }
+
+    /**
+     * Takes a snapshot of the recorded latencies (concurrent recordings may or may not be included)
+     *
+     * @return  the {@link Snapshot}
+     */
+    @NotNull
+    public Snapshot snapshot() {
+        final long[] counts = new long[buckets.length()];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, sum.sum(), max.get());
+    }
+
+    /**
+     * Gets the bucket of a latency
+     *
+     * @param   micros  the latency in microseconds
+     *
+     * @return          the index of the bucket
+     */
+    private static int index(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        final int sub = (int) ((micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Gets the highest latency that falls in a bucket
+     *
+     * @param   index   the index of the bucket
+     *
+     * @return          the highest latency in microseconds
+     */
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        final int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        final long lower = (1L << exponent) | ((long) (index % SUB_BUCKETS) << (exponent - SUB_BITS));
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * An immutable snapshot of a {@link LatencyHistogram}
+     */
+    public static class Snapshot extends Stringable {
+        /**
+         * The amount of latencies per bucket
+         */
+        private final long[] counts;
+        /**
+         * The amount of recorded latencies
+         */
+        public final long count;
+        /**
+         * The sum of all latencies (in microseconds)
+         */
+        public final long sumMicros;
+        /**
+         * The highest latency (in microseconds)
+         */
+        public final long maxMicros;
+
+        /**
+         * Constructs a new {@link Snapshot}
+         *
+         * @param   counts      the amount of latencies per bucket
+         * @param   count       {@link #count}
+         * @param   sumMicros   {@link #sumMicros}
+         * @param   maxMicros   {@link #maxMicros}
+         */
+        private Snapshot(long[] counts, long count, long sumMicros, long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.sumMicros = sumMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        /**
+         * Gets the mean latency
+         *
+         * @return  the mean latency in microseconds, or 0 if nothing was recorded
+         */
+        public double getMeanMicros() {
+            return count == 0 ? 0 : (double) sumMicros / count;
+        }
+
+        /**
+         * Gets a percentile of the latencies (accurate to the width of a bucket)
+         *
+         * @param   percentile  the percentile (for example {@code 99} or {@code 99.9})
+         *
+         * @return              the latency in microseconds, or 0 if nothing was recorded
+         */
+        public long getPercentileMicros(double percentile) {
+            if (count == 0) return 0;
+            final long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) return Math.min(upperBound(i), maxMicros);
+            }
+            return maxMicros;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.parents.Stringable;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * One page of a paginated response
+ *
+ * @param   <T> the type of the items
+ *
+ * @see         PageParser
+ * @see         AsyncHttpUtility#getPages(String, String, PageParser, int)
+ */
+public class Page<T> extends Stringable {
+    /**
+     * The items of the page
+     */
+    @NotNull public final List<T> items;
+    /**
+     * The URL of the next page, or {@code null} if this is the last page
+     */
+    @Nullable public final String next;
+
+    /**
+     * Constructs a new {@link Page}
+     *
+     * @param   items   {@link #items}
+     * @param   next    {@link #next}
+     */
+    public Page(@NotNull List<T> items, @Nullable String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    /**
+     * Gets the URL of the next page from a {@code Link} header ({@code <https://...>; rel="next"})
+     *
+     * @param   url         the URL of the current page, to resolve relative links against
+     * @param   linkHeader  the value of the {@code Link} header, or {@code null} if it's missing
+     *
+     * @return              the absolute URL of the next page, or {@code null} if there is none
+     */
+    @Nullable
+    public static String nextLink(@NotNull String url, @Nullable String linkHeader) {
+        if (linkHeader == null) return null;
+        for (final String link : linkHeader.split(",(?=\\s*<)")) {
+            final int start = link.indexOf('<');
+            final int end = link.indexOf('>', start + 1);
+            if (start == -1 || end == -1) continue;
+            for (final String parameter : link.substring(end + 1).split(";")) {
+                final String trimmed = parameter.trim().toLowerCase(Locale.ROOT).replace("\"", "");
+                if (!trimmed.startsWith("rel=")) continue;
+                for (final String rel : trimmed.substring(4).split("\\s+")) if (rel.equals("next")) try {
+                    return URI.create(url).resolve(link.substring(start + 1, end).trim()).toString();
+                } catch (final IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
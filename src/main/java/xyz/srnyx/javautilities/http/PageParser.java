@@ -0,0 +1,30 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.function.Function;
+
+
+/**
+ * Parses one page of a paginated response, finding its items and the URL of the next page (from a cursor or offset in the body, or a {@link Page#nextLink(String, String) Link header})
+ *
+ * @param   <T> the type of the items
+ */
+@FunctionalInterface
+public interface PageParser<T> {
+    /**
+     * Parses a page
+     *
+     * @param   url         the URL of the page
+     * @param   reader      the response body (UTF-8)
+     * @param   headers     a function getting a response header by name (returning {@code null} if it's missing)
+     *
+     * @return              the parsed {@link Page}
+     *
+     * @throws  IOException if the page couldn't be read
+     */
+    @NotNull
+    Page<T> parse(@NotNull String url, @NotNull InputStreamReader reader, @NotNull Function<String, String> headers) throws IOException;
+}
@@ -0,0 +1,246 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+
+/**
+ * A client-side, per-host token-bucket rate limiter for {@link HttpUtility} (disabled by default)
+ * <br>Requests over the limit are delayed (in the order they arrived) instead of being sent. The limiter also reads {@code Retry-After} and {@code X-RateLimit-Remaining}/{@code X-RateLimit-Reset}/{@code X-RateLimit-Reset-After} response headers, pausing the host until the server allows requests again
+ */
+public class RateLimiter {
+    /**
+     * Whether rate limiting is used
+     */
+    private static volatile boolean enabled = false;
+    /**
+     * The default permits per second for hosts without a specific limit, or {@code 0} for no limit
+     */
+    private static volatile double defaultPermitsPerSecond = 0;
+    /**
+     * The default burst size for hosts without a specific limit
+     */
+    private static volatile int defaultBurst = 1;
+    /**
+     * The limiters by host
+     */
+    @NotNull private static final Map<String, RateLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    /**
+     * The host of this limiter
+     */
+    @NotNull public final String host;
+    /**
+     * The amount of tokens added per second, or {@code 0} for no limit (only server-requested pauses are applied)
+     */
+    private double permitsPerSecond;
+    /**
+     * The maximum amount of tokens
+     */
+    private int burst;
+    /**
+     * The current amount of tokens (negative when requests are queued)
+     */
+    private double tokens;
+    /**
+     * When tokens were last added ({@link System#nanoTime()})
+     */
+    private long lastRefill = System.nanoTime();
+    /**
+     * Until when the server asked to not send requests (epoch milliseconds)
+     */
+    private long pausedUntil = 0;
+
+    /**
+     * Constructs a new {@link RateLimiter}
+     *
+     * @param   host                {@link #host}
+     * @param   permitsPerSecond    {@link #permitsPerSecond}
+     * @param   burst               {@link #burst}
+     */
+    private RateLimiter(@NotNull String host, double permitsPerSecond, int burst) {
+        this.host = host;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.tokens = burst;
+    }
+
+    /**
+     * Checks whether {@link HttpUtility} rate limits its requests
+     *
+     * @return  {@code true} if requests are rate limited, otherwise {@code false}
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether {@link HttpUtility} rate limits its requests
+     *
+     * @param   enabled whether to rate limit requests
+     */
+    public static void setEnabled(boolean enabled) {
+        RateLimiter.enabled = enabled;
+    }
+
+    /**
+     * Sets the limit for hosts without a specific limit (only applies to hosts that haven't been requested yet)
+     *
+     * @param   permitsPerSecond    the amount of requests per second, or {@code 0} for no limit
+     * @param   burst               the amount of requests that may be sent at once after being idle
+     */
+    public static void setDefaultLimit(double permitsPerSecond, int burst) {
+        if (permitsPerSecond < 0 || burst < 1) throw new IllegalArgumentException("Permits per second must be at least 0 and burst at least 1");
+        defaultPermitsPerSecond = permitsPerSecond;
+        defaultBurst = burst;
+    }
+
+    /**
+     * Sets the limit for a specific host
+     *
+     * @param   host                the host (for example {@code api.mojang.com})
+     * @param   permitsPerSecond    the amount of requests per second, or {@code 0} for no limit
+     * @param   burst               the amount of requests that may be sent at once after being idle
+     */
+    public static void setLimit(@NotNull String host, double permitsPerSecond, int burst) {
+        if (permitsPerSecond < 0 || burst < 1) throw new IllegalArgumentException("Permits per second must be at least 0 and burst at least 1");
+        final RateLimiter limiter = get(host);
+        synchronized (limiter) {
+            limiter.refill();
+            limiter.permitsPerSecond = permitsPerSecond;
+            limiter.burst = burst;
+            limiter.tokens = Math.min(limiter.tokens, burst);
+        }
+    }
+
+    /**
+     * Gets the limiter for the specified host, creating it with the default limit if needed
+     *
+     * @param   host    the host
+     *
+     * @return          the {@link RateLimiter} of the host
+     */
+    @NotNull
+    public static RateLimiter get(@NotNull String host) {
+        return LIMITERS.computeIfAbsent(host.toLowerCase(Locale.ROOT), key -> new RateLimiter(key, defaultPermitsPerSecond, defaultBurst));
+    }
+
+    /**
+     * Waits until a request to the host may be sent
+     *
+     * @throws  InterruptedException    if the thread was interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        final long waitNanos;
+        synchronized (this) {
+            refill();
+            long wait = TimeUnit.MILLISECONDS.toNanos(Math.max(0, pausedUntil - System.currentTimeMillis()));
+            if (permitsPerSecond > 0) {
+                tokens--;
+                if (tokens < 0) wait = Math.max(wait, (long) (-tokens / permitsPerSecond * 1_000_000_000L));
+            }
+            waitNanos = wait;
+        }
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    /**
+     * Pauses requests to the host until the specified time
+     *
+     * @param   until   until when to pause (epoch milliseconds)
+     */
+    public synchronized void pauseUntil(long until) {
+        pausedUntil = Math.max(pausedUntil, until);
+    }
+
+    /**
+     * Adjusts the limiter using the rate limit headers of a response
+     *
+     * @param   responseCode    the response code
+     * @param   headers         a function getting a response header by name (returning {@code null} if it's missing)
+     */
+    public void observe(int responseCode, @NotNull Function<String, String> headers) {
+        final long now = System.currentTimeMillis();
+
+        // Retry-After
+        if (responseCode == 429 || responseCode == 503) {
+            final Long retryAfter = parseRetryAfter(headers.apply("Retry-After"), now);
+            if (retryAfter != null) pauseUntil(retryAfter);
+        }
+
+        // X-RateLimit-*
+        final Double remaining = parseDouble(headers.apply("X-RateLimit-Remaining"));
+        if (remaining == null) return;
+        synchronized (this) {
+            refill();
+            if (remaining < tokens) tokens = remaining;
+        }
+        if (remaining >= 1) return;
+        final Double resetAfter = parseDouble(headers.apply("X-RateLimit-Reset-After"));
+        if (resetAfter != null) {
+            pauseUntil(now + (long) (resetAfter * 1000));
+            return;
+        }
+        final Double reset = parseDouble(headers.apply("X-RateLimit-Reset"));
+        if (reset == null) return;
+        // Either an epoch timestamp (seconds) or a delay in seconds
+        pauseUntil(reset > 1_000_000_000 ? (long) (reset * 1000) : now + (long) (reset * 1000));
+    }
+
+    /**
+     * Adds the tokens earned since the last refill
+     */
+    private void refill() {
+        final long now = System.nanoTime();
+        if (permitsPerSecond > 0) tokens = Math.min(burst, tokens + (now - lastRefill) / 1_000_000_000D * permitsPerSecond);
+        lastRefill = now;
+    }
+
+    /**
+     * Parses a {@code Retry-After} header (either seconds or an HTTP date)
+     *
+     * @param   value   the header value
+     * @param   now     the current time (epoch milliseconds)
+     *
+     * @return          when requests may be sent again (epoch milliseconds), or {@code null} if the header is missing or invalid
+     */
+    @Nullable
+    private static Long parseRetryAfter(@Nullable String value, long now) {
+        if (value == null) return null;
+        final Double seconds = parseDouble(value);
+        if (seconds != null) return now + (long) (seconds * 1000);
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (final DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a {@link Double} from a header value
+     *
+     * @param   value   the header value
+     *
+     * @return          the {@link Double}, or {@code null} if the header is missing or invalid
+     */
+    @Nullable
+    private static Double parseDouble(@Nullable String value) {
+        if (value == null) return null;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+}
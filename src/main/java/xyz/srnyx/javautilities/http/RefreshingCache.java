@@ -0,0 +1,239 @@
+package xyz.srnyx.javautilities.http;
+
+import com.google.gson.JsonElement;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+
+/**
+ * An application-level, in-memory cache of loaded values (such as {@link HttpUtility#getJson(String, String) JSON responses} by URL) that serves stale values while refreshing them in the background
+ * <br>Only the first load of a key waits for the loader. Afterwards:
+ * <ul>
+ *     <li>once a value is older than {@link #refreshAfter}, the next access returns it immediately and refreshes it in the background (so keys that are accessed often are refreshed before they expire)</li>
+ *     <li>once a value is older than {@link #ttl}, it's stale but still returned immediately while it's being refreshed</li>
+ *     <li>once a value is older than {@link #ttl} plus {@link #maxStale} (if set), it's no longer returned and the access waits for a new value</li>
+ * </ul>
+ * If a refresh fails, the previous value is kept and the refresh is retried on the next access
+ *
+ * @param   <T> the type of the values
+ */
+public class RefreshingCache<T> {
+    /**
+     * How long a value is fresh
+     */
+    @NotNull public final Duration ttl;
+    /**
+     * How old a value must be for an access to refresh it in the background (at most {@link #ttl})
+     */
+    @NotNull public final Duration refreshAfter;
+    /**
+     * How long a value may be served after its {@link #ttl} has passed, or {@code null} to serve it until a refresh succeeds
+     */
+    @Nullable public final Duration maxStale;
+    /**
+     * The maximum amount of keys, the least recently accessed key being evicted when it's exceeded
+     */
+    public final int maxEntries;
+    /**
+     * The function loading the value of a key (empty if loading failed)
+     */
+    @NotNull private final Function<String, Optional<T>> loader;
+    /**
+     * The {@link Executor} running background refreshes
+     */
+    @NotNull private final Executor executor;
+    /**
+     * The cached entries by key
+     */
+    @NotNull private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@link RefreshingCache}
+     *
+     * @param   ttl             {@link #ttl}
+     * @param   refreshAfter    {@link #refreshAfter}
+     * @param   maxStale        {@link #maxStale}
+     * @param   maxEntries      {@link #maxEntries}
+     * @param   loader          the function loading the value of a key (empty if loading failed)
+     * @param   executor        the {@link Executor} to run background refreshes on
+     */
+    public RefreshingCache(@NotNull Duration ttl, @NotNull Duration refreshAfter, @Nullable Duration maxStale, int maxEntries, @NotNull Function<String, Optional<T>> loader, @NotNull Executor executor) {
+        if (maxEntries < 1) throw new IllegalArgumentException("Max entries must be at least 1");
+        if (refreshAfter.compareTo(ttl) > 0) throw new IllegalArgumentException("Refresh after must not be longer than the TTL");
+        this.ttl = ttl;
+        this.refreshAfter = refreshAfter;
+        this.maxStale = maxStale;
+        this.maxEntries = maxEntries;
+        this.loader = loader;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a new {@link RefreshingCache} of {@link HttpUtility#getJson(String, String) JSON responses} by URL, refreshing values after 80% of their TTL and serving stale values until a refresh succeeds
+     *
+     * @param   userAgent   the user agent to request with
+     * @param   ttl         {@link #ttl}
+     * @param   maxEntries  {@link #maxEntries}
+     *
+     * @return              the new {@link RefreshingCache}
+     */
+    @NotNull
+    public static RefreshingCache<JsonElement> json(@NotNull String userAgent, @NotNull Duration ttl, int maxEntries) {
+        return new RefreshingCache<>(ttl, ttl.multipliedBy(4).dividedBy(5), null, maxEntries, url -> HttpUtility.getJson(userAgent, url), HttpUtility.async().executor);
+    }
+
+    /**
+     * Creates a new {@link RefreshingCache} of {@link HttpUtility#getString(String, String) string responses} by URL, refreshing values after 80% of their TTL and serving stale values until a refresh succeeds
+     *
+     * @param   userAgent   the user agent to request with
+     * @param   ttl         {@link #ttl}
+     * @param   maxEntries  {@link #maxEntries}
+     *
+     * @return              the new {@link RefreshingCache}
+     */
+    @NotNull
+    public static RefreshingCache<String> string(@NotNull String userAgent, @NotNull Duration ttl, int maxEntries) {
+        return new RefreshingCache<>(ttl, ttl.multipliedBy(4).dividedBy(5), null, maxEntries, url -> HttpUtility.getString(userAgent, url), HttpUtility.async().executor);
+    }
+
+    /**
+     * Gets the value of a key, only waiting for the loader if there's no usable cached value
+     * <br><b>The same value instance is returned to every caller, so mutable values must not be modified</b>
+     *
+     * @param   key the key (for example a URL)
+     *
+     * @return      the (possibly stale) value, or empty if there's no usable value and loading it failed
+     */
+    @NotNull
+    public Optional<T> get(@NotNull String key) {
+        final long now = System.nanoTime();
+        final Entry<T> entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = now;
+            final long age = now - entry.loadedAt;
+            if (maxStale == null || age <= ttl.plus(maxStale).toNanos()) {
+                if (age >= refreshAfter.toNanos()) refresh(key, entry);
+                return Optional.of(entry.value);
+            }
+        }
+
+        // No usable value, load it (concurrent callers for the same key share the load)
+        return SingleFlight.run("cache@" + System.identityHashCode(this) + " " + key, () -> load(key));
+    }
+
+    /**
+     * Removes a key, so the next access loads it again
+     *
+     * @param   key the key to remove
+     */
+    public void invalidate(@NotNull String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all keys
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Loads the value of a key and caches it
+     *
+     * @param   key the key
+     *
+     * @return      the loaded value, or empty if loading failed
+     */
+    @NotNull
+    private Optional<T> load(@NotNull String key) {
+        final Optional<T> value = loader.apply(key);
+        value.ifPresent(loaded -> put(key, loaded));
+        return value;
+    }
+
+    /**
+     * Refreshes the value of a key in the background, unless it's already being refreshed
+     *
+     * @param   key     the key
+     * @param   entry   the current {@link Entry} of the key
+     */
+    private void refresh(@NotNull String key, @NotNull Entry<T> entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    // Keep the stale value if the refresh fails
+                    loader.apply(key).ifPresent(loaded -> {
+                        if (entries.get(key) == entry) put(key, loaded);
+                    });
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (final RuntimeException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Caches a value, evicting the least recently accessed key if there are too many
+     *
+     * @param   key     the key
+     * @param   value   the value
+     */
+    private void put(@NotNull String key, @NotNull T value) {
+        final Entry<T> previous = entries.put(key, new Entry<>(value));
+        if (previous != null || entries.size() <= maxEntries) return;
+        String eldestKey = null;
+        long eldestAccess = Long.MAX_VALUE;
+        for (final Map.Entry<String, Entry<T>> candidate : entries.entrySet()) if (candidate.getValue().lastAccess - eldestAccess < 0 || eldestKey == null) {
+            eldestKey = candidate.getKey();
+            eldestAccess = candidate.getValue().lastAccess;
+        }
+        if (eldestKey != null) entries.remove(eldestKey);
+    }
+
+    /**
+     * A cached value
+     *
+     * @param   <T> the type of the value
+     */
+    private static class Entry<T> {
+        /**
+         * The value
+         */
+        @NotNull private final T value;
+        /**
+         * When the value was loaded ({@link System#nanoTime()})
+         */
+        private final long loadedAt = System.nanoTime();
+        /**
+         * When the value was last accessed ({@link System#nanoTime()})
+         */
+        private volatile long lastAccess = loadedAt;
+        /**
+         * Whether the value is being refreshed
+         */
+        @NotNull private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        /**
+         * Constructs a new {@link Entry}
+         *
+         * @param   value   {@link #value}
+         */
+        private Entry(@NotNull T value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import xyz.srnyx.javautilities.HttpUtility;
+import xyz.srnyx.javautilities.parents.Stringable;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * A policy for retrying failed idempotent {@link HttpUtility} requests ({@code GET}, {@code HEAD}, {@code PUT}, {@code DELETE}, {@code OPTIONS}) with jittered exponential backoff
+ * <br>A request is retried if it failed with an I/O error or a {@code 408}, {@code 429}, {@code 500}, {@code 502}, {@code 503} or {@code 504} response
+ */
+public class RetryPolicy extends Stringable {
+    /**
+     * A {@link RetryPolicy} that never retries
+     */
+    @NotNull public static final RetryPolicy NONE = new RetryPolicy(0, Duration.ZERO, Duration.ZERO);
+    /**
+     * The {@link RetryPolicy} used by {@link HttpUtility}
+     */
+    @NotNull private static volatile RetryPolicy defaultPolicy = NONE;
+
+    /**
+     * The maximum amount of retries (not including the first attempt)
+     */
+    public final int maxRetries;
+    /**
+     * The delay (in milliseconds) before the first retry, doubled for every retry after it
+     */
+    public final long baseDelayMillis;
+    /**
+     * The maximum delay (in milliseconds) between retries
+     */
+    public final long maxDelayMillis;
+
+    /**
+     * Constructs a new {@link RetryPolicy}
+     *
+     * @param   maxRetries  {@link #maxRetries}
+     * @param   baseDelay   {@link #baseDelayMillis}
+     * @param   maxDelay    {@link #maxDelayMillis}
+     */
+    public RetryPolicy(int maxRetries, @NotNull Duration baseDelay, @NotNull Duration maxDelay) {
+        if (maxRetries < 0) throw new IllegalArgumentException("Max retries must be at least 0");
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+    }
+
+    /**
+     * Gets the {@link RetryPolicy} used by {@link HttpUtility}
+     *
+     * @return  the default {@link RetryPolicy} ({@link #NONE} unless changed)
+     */
+    @NotNull
+    public static RetryPolicy getDefault() {
+        return defaultPolicy;
+    }
+
+    /**
+     * Sets the {@link RetryPolicy} used by {@link HttpUtility}
+     *
+     * @param   policy  the new default {@link RetryPolicy}
+     */
+    public static void setDefault(@NotNull RetryPolicy policy) {
+        defaultPolicy = policy;
+    }
+
+    /**
+     * Gets the delay before a retry, picked randomly between 0 and the exponential backoff ("full jitter") so that clients don't retry in lockstep
+     *
+     * @param   retry   the retry (starting at 0)
+     *
+     * @return          the delay in milliseconds
+     */
+    public long getDelayMillis(int retry) {
+        final long backoff = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retry, 30));
+        return backoff <= 0 ? 0 : ThreadLocalRandom.current().nextLong(backoff + 1);
+    }
+
+    /**
+     * Checks whether requests with the specified method can safely be retried
+     *
+     * @param   method  the request method
+     *
+     * @return          {@code true} if the method is idempotent, otherwise {@code false}
+     */
+    public static boolean isIdempotent(@NotNull String method) {
+        switch (method) {
+            case "GET":
+            case "HEAD":
+            case "PUT":
+            case "DELETE":
+            case "OPTIONS":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks whether a response with the specified code should be retried
+     *
+     * @param   responseCode    the response code
+     *
+     * @return                  {@code true} if the request should be retried, otherwise {@code false}
+     */
+    public static boolean isRetryable(int responseCode) {
+        switch (responseCode) {
+            case 408:
+            case 429:
+            case 500:
+            case 502:
+            case 503:
+            case 504:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
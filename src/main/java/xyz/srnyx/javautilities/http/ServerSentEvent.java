@@ -0,0 +1,40 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.srnyx.javautilities.parents.Stringable;
+
+
+/**
+ * An event received from a {@code text/event-stream} response
+ *
+ * @see EventStream#serverSentEvents(String, String)
+ */
+public class ServerSentEvent extends Stringable {
+    /**
+     * The last event ID at the time this event was received, or {@code null} if the server hasn't sent one
+     */
+    @Nullable public final String id;
+    /**
+     * The type of the event ({@code message} if the server didn't specify one)
+     */
+    @NotNull public final String event;
+    /**
+     * The data of the event (multiple {@code data} lines are joined with {@code \n})
+     */
+    @NotNull public final String data;
+
+    /**
+     * Constructs a new {@link ServerSentEvent}
+     *
+     * @param   id      {@link #id}
+     * @param   event   {@link #event}
+     * @param   data    {@link #data}
+     */
+    public ServerSentEvent(@Nullable String id, @NotNull String event, @NotNull String data) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+    }
+}
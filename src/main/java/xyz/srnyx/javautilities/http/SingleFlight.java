@@ -0,0 +1,93 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+
+/**
+ * Coalesces identical concurrent requests: while a request for a key is in flight, other callers with the same key wait for it and receive the same result instead of sending their own
+ * <br>When enabled, {@link HttpUtility#getString(String, String)} and {@link HttpUtility#getJson(String, String)} (including their cached and asynchronous variants) are coalesced by method, URL and user agent
+ * <br><b>Coalesced callers receive the same result instance, so mutable results (such as {@link com.google.gson.JsonElement JsonElements}) must not be modified</b>
+ */
+public class SingleFlight {
+    /**
+     * Whether {@link HttpUtility} coalesces its GET requests
+     */
+    private static volatile boolean enabled = false;
+    /**
+     * The in-flight results by key
+     */
+    @NotNull private static final Map<String, CompletableFuture<Object>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    /**
+     * Checks whether {@link HttpUtility} coalesces identical concurrent GET requests
+     *
+     * @return  {@code true} if requests are coalesced, otherwise {@code false}
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether {@link HttpUtility} coalesces identical concurrent GET requests (disabled by default)
+     *
+     * @param   enabled whether to coalesce requests
+     */
+    public static void setEnabled(boolean enabled) {
+        SingleFlight.enabled = enabled;
+    }
+
+    /**
+     * Runs the {@link Supplier}, unless another call with the same key is already running, in which case its result is waited for and returned instead
+     *
+     * @param   key         the key identifying identical calls
+     * @param   supplier    the {@link Supplier} to run
+     *
+     * @return              the result of the {@link Supplier} (possibly from another caller)
+     *
+     * @param   <T>         the type of the result
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T run(@NotNull String key, @NotNull Supplier<T> supplier) {
+        final CompletableFuture<Object> created = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = IN_FLIGHT.putIfAbsent(key, created);
+
+        // Wait for the in-flight call
+        if (existing != null) try {
+            return (T) existing.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+
+        // Run the call
+        try {
+            final T result = supplier.get();
+            created.complete(result);
+            return result;
+        } catch (final Throwable throwable) {
+            created.completeExceptionally(throwable);
+            throw throwable;
+        } finally {
+            IN_FLIGHT.remove(key, created);
+        }
+    }
+
+    /**
+     * Constructs a new {@link SingleFlight} instance (illegal)
+     *
+     * @throws  UnsupportedOperationException   if this class is instantiated
+     */
+    private SingleFlight() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,20 @@
+package xyz.srnyx.javautilities.http;
+
+import xyz.srnyx.javautilities.HttpUtility;
+
+
+/**
+ * Receives the progress of an upload
+ *
+ * @see HttpUtility#postMultipart(String, String, java.util.List, UploadProgress)
+ */
+@FunctionalInterface
+public interface UploadProgress {
+    /**
+     * Called after each chunk of the body was written to the connection (restarting from {@code 0} if the request is retried)
+     *
+     * @param   sent    the amount of bytes sent so far
+     * @param   total   the total amount of bytes of the body
+     */
+    void progress(long sent, long total);
+}
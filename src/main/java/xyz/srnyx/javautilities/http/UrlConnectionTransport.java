@@ -0,0 +1,147 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * The {@link HttpTransport} using {@link HttpURLConnection}, respecting {@link KeepAlive}
+ */
+class UrlConnectionTransport extends HttpTransport {
+    /**
+     * The only {@link UrlConnectionTransport} instance
+     */
+    @NotNull static final UrlConnectionTransport INSTANCE = new UrlConnectionTransport();
+    /**
+     * The maximum amount of bytes drained from a response to keep its connection alive
+     */
+    private static final long MAX_DRAIN = 64 * 1024;
+    /**
+     * The chunk length used for request bodies of unknown length
+     */
+    private static final int CHUNK_LENGTH = 8192;
+    /**
+     * The (approximate) amount of idle connections per host that have a {@link KeepAlive#getMaxIdle(String) host-specific limit}
+     */
+    @NotNull private static final Map<String, Integer> IDLE_CONNECTIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the {@link UrlConnectionTransport}
+     */
+    private UrlConnectionTransport() {
+        // Only one instance
+    }
+
+    @Override @NotNull
+    public Exchange open(@NotNull String method, @NotNull String url, @NotNull Map<String, String> headers, long bodyLength) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        connection.setRequestMethod(method);
+        headers.forEach(connection::setRequestProperty);
+        if (bodyLength != NO_BODY) {
+            connection.setDoOutput(true);
+            if (bodyLength >= 0) {
+                connection.setFixedLengthStreamingMode(bodyLength);
+            } else {
+                connection.setChunkedStreamingMode(CHUNK_LENGTH);
+            }
+        }
+        final String host = connection.getURL().getHost().toLowerCase(Locale.ROOT);
+        if (KeepAlive.isEnabled()) IDLE_CONNECTIONS.computeIfPresent(host, (key, idle) -> idle > 0 ? idle - 1 : 0);
+        try {
+            connection.connect();
+        } catch (final IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+
+        return new Exchange() {
+            @Override @NotNull
+            public OutputStream getOutputStream() throws IOException {
+                return connection.getOutputStream();
+            }
+
+            @Override
+            public int getResponseCode() throws IOException {
+                return connection.getResponseCode();
+            }
+
+            @Override @Nullable
+            public String getHeader(@NotNull String name) {
+                return connection.getHeaderField(name);
+            }
+
+            @Override @NotNull
+            public InputStream getInputStream() throws IOException {
+                return connection.getInputStream();
+            }
+
+            @Override
+            public void abort() {
+                connection.disconnect();
+            }
+
+            @Override
+            public void release() {
+                UrlConnectionTransport.release(connection, host);
+            }
+        };
+    }
+
+    /**
+     * Releases a {@link HttpURLConnection} once its response has been handled
+     * <br>If {@link KeepAlive} is enabled, the remaining response (or error) body is drained and its stream closed so the socket can be reused, otherwise the connection is disconnected
+     *
+     * @param   connection  the {@link HttpURLConnection} to release
+     * @param   host        the lowercase host of the connection
+     */
+    private static void release(@NotNull HttpURLConnection connection, @NotNull String host) {
+        if (!KeepAlive.isEnabled() || !reserveIdle(host)) {
+            connection.disconnect();
+            return;
+        }
+        try {
+            final InputStream stream = connection.getResponseCode() >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (stream != null) try (final InputStream input = stream) {
+                final byte[] buffer = new byte[8192];
+                long remaining = MAX_DRAIN;
+                int read;
+                while ((read = input.read(buffer)) != -1) if ((remaining -= read) < 0) {
+                    // Too much left to read, cheaper to open a new connection later
+                    connection.disconnect();
+                    return;
+                }
+            }
+        } catch (final IOException ignored) {
+            // Stream was already closed (the JDK then handles keep-alive itself) or the connection broke (never reused)
+        }
+    }
+
+    /**
+     * Reserves a spot for an idle connection to the specified host, respecting {@link KeepAlive#getMaxIdle(String)}
+     *
+     * @param   host    the host of the connection
+     *
+     * @return          {@code true} if the connection can be kept alive, otherwise {@code false}
+     */
+    private static boolean reserveIdle(@NotNull String host) {
+        final Integer maxIdle = KeepAlive.getMaxIdle(host);
+        if (maxIdle == null) return true;
+        final boolean[] reserved = {false};
+        IDLE_CONNECTIONS.compute(host, (key, idle) -> {
+            final int current = idle == null ? 0 : idle;
+            if (current >= maxIdle) return current;
+            reserved[0] = true;
+            return current + 1;
+        });
+        return reserved[0];
+    }
+}
@@ -0,0 +1,40 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ExecutorService;
+
+
+/**
+ * Support for virtual threads, which need Java 21+
+ * <br>This is the Java 8 version of the class, the multi-release jar replaces it on Java 21+ with one that creates virtual threads
+ */
+class VirtualThreads {
+    /**
+     * Checks whether virtual threads are available
+     *
+     * @return  always {@code false}
+     */
+    static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Creates an {@link ExecutorService} starting a new virtual thread for every task
+     *
+     * @return  always {@code null}, as virtual threads aren't available
+     */
+    @Nullable
+    static ExecutorService newExecutor() {
+        return null;
+    }
+
+    /**
+     * Constructs a new {@link VirtualThreads} instance (illegal)
+     *
+     * @throws  UnsupportedOperationException   if this class is instantiated
+     */
+    private VirtualThreads() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,330 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * The HTTP/2 {@link HttpTransport} using {@link HttpClient} (Java 11+ version of the class)
+ * <br>One {@link HttpClient} is shared, so concurrent requests to the same host are multiplexed over a single HTTP/2 connection (servers without HTTP/2 fall back to HTTP/1.1)
+ */
+class Http2Transport extends HttpTransport {
+    /**
+     * The maximum amount of bytes drained from a response before closing it
+     */
+    private static final long MAX_DRAIN = 64 * 1024;
+    /**
+     * The size of the pipe request bodies are written through
+     */
+    private static final int PIPE_SIZE = 64 * 1024;
+    /**
+     * The {@link Http2Transport} instance, lazily created by {@link #get()}
+     */
+    @Nullable private static Http2Transport instance;
+
+    /**
+     * The shared {@link HttpClient}
+     */
+    @NotNull private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    /**
+     * Constructs a new {@link Http2Transport}
+     */
+    private Http2Transport() {
+        // Only one instance
+    }
+
+    /**
+     * Gets the HTTP/2 {@link HttpTransport}, creating it if needed
+     *
+     * @return  the {@link Http2Transport}
+     */
+    @NotNull
+    static synchronized HttpTransport get() {
+        if (instance == null) instance = new Http2Transport();
+        return instance;
+    }
+
+    @Override @NotNull
+    public Exchange open(@NotNull String method, @NotNull String url, @NotNull Map<String, String> headers, long bodyLength) throws IOException {
+        final HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(URI.create(url));
+            headers.forEach(builder::setHeader);
+        } catch (final IllegalArgumentException e) {
+            throw new IOException("Invalid request: " + e.getMessage(), e);
+        }
+
+        // Body (written through a pipe, read by the client while it sends the request)
+        final Pipe pipe;
+        final OutputStream output;
+        HttpRequest.BodyPublisher publisher;
+        if (bodyLength == NO_BODY || bodyLength == 0) {
+            pipe = null;
+            output = bodyLength == 0 ? OutputStream.nullOutputStream() : null;
+            publisher = HttpRequest.BodyPublishers.noBody();
+        } else {
+            pipe = new Pipe(PIPE_SIZE);
+            output = pipe.output;
+            publisher = HttpRequest.BodyPublishers.ofInputStream(() -> pipe.input);
+            if (bodyLength > 0) publisher = HttpRequest.BodyPublishers.fromPublisher(publisher, bodyLength);
+        }
+
+        // Send
+        final CompletableFuture<HttpResponse<InputStream>> future = client.sendAsync(builder.method(method, publisher).build(), HttpResponse.BodyHandlers.ofInputStream());
+        // Unblock the body writer if the client stops reading it
+        if (pipe != null) future.whenComplete((response, throwable) -> closeQuietly(pipe.input));
+
+        return new Exchange() {
+            @Override @NotNull
+            public OutputStream getOutputStream() throws IOException {
+                if (output == null) throw new IOException("Request has no body");
+                return output;
+            }
+
+            @Override
+            public int getResponseCode() throws IOException {
+                return response().statusCode();
+            }
+
+            @Override @Nullable
+            public String getHeader(@NotNull String name) {
+                if (!future.isDone() || future.isCompletedExceptionally()) return null;
+                return future.join().headers().firstValue(name).orElse(null);
+            }
+
+            @Override @NotNull
+            public InputStream getInputStream() throws IOException {
+                final HttpResponse<InputStream> response = response();
+                if (response.statusCode() >= 400) throw new IOException("Server returned HTTP response code: " + response.statusCode() + " for URL: " + url);
+                return response.body();
+            }
+
+            @Override
+            public void abort() {
+                future.cancel(true);
+                if (pipe != null) closeQuietly(pipe.input);
+                if (future.isDone() && !future.isCompletedExceptionally()) closeQuietly(future.join().body());
+            }
+
+            @Override
+            public void release() {
+                if (!future.isDone() || future.isCompletedExceptionally()) {
+                    abort();
+                    return;
+                }
+                // Drain a small remainder so HTTP/1.1 connections can be reused (HTTP/2 streams are simply reset)
+                try (final InputStream input = future.join().body()) {
+                    final byte[] buffer = new byte[8192];
+                    long remaining = MAX_DRAIN;
+                    int read;
+                    while ((read = input.read(buffer)) != -1) if ((remaining -= read) < 0) return;
+                } catch (final IOException ignored) {
+                    // Already closed or broken
+                }
+            }
+
+            /**
+             * Waits for the response
+             *
+             * @return              the {@link HttpResponse}
+             *
+             * @throws  IOException if no response was received
+             */
+            @NotNull
+            private HttpResponse<InputStream> response() throws IOException {
+                try {
+                    return future.get();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    abort();
+                    throw new InterruptedIOException("Interrupted while waiting for the response");
+                } catch (final CancellationException e) {
+                    throw new IOException("Request was aborted", e);
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof IOException) throw (IOException) cause;
+                    throw new IOException(cause);
+                }
+            }
+        };
+    }
+
+    /**
+     * Closes an {@link InputStream}, ignoring any {@link IOException}
+     *
+     * @param   stream  the {@link InputStream} to close
+     */
+    private static void closeQuietly(@NotNull InputStream stream) {
+        try {
+            stream.close();
+        } catch (final IOException ignored) {
+            // Nothing to do
+        }
+    }
+
+    /**
+     * A bounded in-memory pipe between the thread writing a request body and the {@link HttpClient} reading it
+     * <br>Unlike {@link java.io.PipedInputStream}, it waits with a {@link ReentrantLock} instead of {@code synchronized}, so a virtual thread writing a body doesn't pin its carrier thread
+     */
+    private static class Pipe {
+        /**
+         * The lock guarding the {@link #buffer}
+         */
+        @NotNull private final ReentrantLock lock = new ReentrantLock();
+        /**
+         * Signalled when bytes were written or the pipe was closed
+         */
+        @NotNull private final Condition readable = lock.newCondition();
+        /**
+         * Signalled when bytes were read or the pipe was closed
+         */
+        @NotNull private final Condition writable = lock.newCondition();
+        /**
+         * The circular buffer of written bytes that weren't read yet
+         */
+        private final byte[] buffer;
+        /**
+         * The index of the next byte to read
+         */
+        private int readIndex = 0;
+        /**
+         * The amount of bytes in the {@link #buffer}
+         */
+        private int available = 0;
+        /**
+         * Whether the writing side was closed (the body is complete)
+         */
+        private boolean writeClosed = false;
+        /**
+         * Whether the reading side was closed (nothing more will be read)
+         */
+        private boolean readClosed = false;
+
+        /**
+         * The stream the body is written to
+         */
+        @NotNull private final OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte @NotNull [] bytes, int offset, int length) throws IOException {
+                lock.lock();
+                try {
+                    while (length > 0) {
+                        while (available == buffer.length && !readClosed) await(writable);
+                        if (readClosed || writeClosed) throw new IOException("Pipe closed");
+                        final int writeIndex = (readIndex + available) % buffer.length;
+                        final int count = Math.min(length, Math.min(buffer.length - available, buffer.length - writeIndex));
+                        System.arraycopy(bytes, offset, buffer, writeIndex, count);
+                        available += count;
+                        offset += count;
+                        length -= count;
+                        readable.signal();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public void close() {
+                lock.lock();
+                try {
+                    writeClosed = true;
+                    readable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        };
+
+        /**
+         * The stream the {@link HttpClient} reads the body from
+         */
+        @NotNull private final InputStream input = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                final byte[] single = new byte[1];
+                return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte @NotNull [] bytes, int offset, int length) throws IOException {
+                if (length == 0) return 0;
+                lock.lock();
+                try {
+                    while (available == 0 && !writeClosed && !readClosed) await(readable);
+                    if (readClosed) throw new IOException("Pipe closed");
+                    if (available == 0) return -1;
+                    final int count = Math.min(length, Math.min(available, buffer.length - readIndex));
+                    System.arraycopy(buffer, readIndex, bytes, offset, count);
+                    readIndex = (readIndex + count) % buffer.length;
+                    available -= count;
+                    writable.signal();
+                    return count;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public void close() {
+                lock.lock();
+                try {
+                    readClosed = true;
+                    readable.signalAll();
+                    writable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        };
+
+        /**
+         * Constructs a new {@link Pipe}
+         *
+         * @param   size    the size of the buffer
+         */
+        private Pipe(int size) {
+            this.buffer = new byte[size];
+        }
+
+        /**
+         * Waits for a {@link Condition} of the {@link #lock} (which must be held)
+         *
+         * @param   condition   the {@link Condition} to wait for
+         *
+         * @throws  InterruptedIOException  if the thread was interrupted
+         */
+        private void await(@NotNull Condition condition) throws InterruptedIOException {
+            try {
+                condition.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the pipe");
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package xyz.srnyx.javautilities.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Support for virtual threads (Java 21+ version of the class)
+ */
+class VirtualThreads {
+    /**
+     * The amount of executors created, used to name their threads
+     */
+    @NotNull private static final AtomicInteger EXECUTOR_COUNTER = new AtomicInteger();
+
+    /**
+     * Checks whether virtual threads are available
+     *
+     * @return  always {@code true}
+     */
+    static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Creates an {@link ExecutorService} starting a new (named) virtual thread for every task
+     *
+     * @return  the new {@link ExecutorService}
+     */
+    @NotNull
+    static ExecutorService newExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                .name("HttpUtility-virtual-" + EXECUTOR_COUNTER.incrementAndGet() + "-", 1)
+                .factory());
+    }
+
+    /**
+     * Constructs a new {@link VirtualThreads} instance (illegal)
+     *
+     * @throws  UnsupportedOperationException   if this class is instantiated
+     */
+    private VirtualThreads() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}